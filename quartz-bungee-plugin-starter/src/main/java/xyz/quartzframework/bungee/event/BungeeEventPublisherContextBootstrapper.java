@@ -3,6 +3,7 @@ package xyz.quartzframework.bungee.event;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.md_5.bungee.api.plugin.PluginManager;
+import xyz.quartzframework.common.event.ListenerRoutingTable;
 import xyz.quartzframework.core.bean.annotation.NoProxy;
 import xyz.quartzframework.core.bean.annotation.Provide;
 import xyz.quartzframework.core.bean.definition.PluginBeanDefinitionRegistry;
@@ -21,9 +22,14 @@ public class BungeeEventPublisherContextBootstrapper {
 
     private final PluginBeanDefinitionRegistry registry;
 
+    @Provide
+    ListenerRoutingTable listenerRoutingTable() {
+        return new ListenerRoutingTable(registry);
+    }
+
     @Provide
     @ActivateWhenBeanMissing(EventPublisher.class)
-    EventPublisher eventPublisher(PluginManager pluginManager) {
-        return new BungeeEventPublisher(registry, pluginManager, taskFactory);
+    EventPublisher eventPublisher(PluginManager pluginManager, ListenerRoutingTable routingTable) {
+        return new BungeeEventPublisher(pluginManager, taskFactory, routingTable);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.md_5.bungee.api.plugin.Listener;
+import xyz.quartzframework.common.event.ListenerRoutingTable;
 import xyz.quartzframework.core.bean.BeanInjector;
 import xyz.quartzframework.core.bean.annotation.Inject;
 import xyz.quartzframework.core.bean.annotation.NoProxy;
@@ -25,6 +26,8 @@ public class EventContextBootstrapper {
 
     private final BungeeListenerFactory listenerFactory;
 
+    private final ListenerRoutingTable routingTable;
+
     private final List<Listener> events;
 
     private final List<Listener> dynamicListeners = new ArrayList<>();
@@ -33,6 +36,7 @@ public class EventContextBootstrapper {
     public void onDestroy() {
         dynamicListeners.forEach(listenerFactory::unregisterEvents);
         dynamicListeners.clear();
+        routingTable.invalidate();
     }
 
     @PostConstruct
@@ -56,6 +60,7 @@ public class EventContextBootstrapper {
                 .stream()
                 .mapToLong(def -> def.getListenMethods().size())
                 .sum();
+        routingTable.invalidate();
         log.info("Registered {} listeners", events.size() + count);
     }
 }
\ No newline at end of file
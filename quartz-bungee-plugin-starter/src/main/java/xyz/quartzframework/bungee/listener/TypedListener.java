@@ -0,0 +1,23 @@
+package xyz.quartzframework.bungee.listener;
+
+import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.api.plugin.Listener;
+
+import java.util.function.Consumer;
+
+/**
+ * Base type of the listeners generated by {@link TypedListenerGenerator}.
+ * <p>
+ * Every generated subclass declares a single {@code @EventHandler} method whose parameter is the
+ * concrete event type, so BungeeCord only posts matching events to it.
+ */
+@RequiredArgsConstructor
+abstract class TypedListener implements Listener {
+
+    private final Consumer<Event> handler;
+
+    final void dispatch(Event event) {
+        handler.accept(event);
+    }
+}
@@ -0,0 +1,81 @@
+package xyz.quartzframework.bungee.listener;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.event.EventHandler;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates one {@link TypedListener} subclass per (event type, priority) pair.
+ * <p>
+ * BungeeCord indexes handlers by the parameter type of their {@code @EventHandler} method, so a
+ * listener declared against the base {@link Event} type would receive every proxy event. Generated
+ * classes are cached and shared by all handlers of the same event type and priority.
+ */
+@UtilityClass
+class TypedListenerGenerator {
+
+    private static final String BASE_NAME = Type.getInternalName(TypedListener.class);
+
+    private static final String EVENT_DESCRIPTOR = Type.getDescriptor(Event.class);
+
+    private static final String CONSUMER_DESCRIPTOR = Type.getDescriptor(Consumer.class);
+
+    private static final Map<ListenerKey, Constructor<? extends TypedListener>> constructors = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    @SneakyThrows
+    public TypedListener generate(Class<? extends Event> eventType, byte priority, Consumer<Event> handler) {
+        val constructor = constructors.computeIfAbsent(new ListenerKey(eventType, priority), TypedListenerGenerator::define);
+        return constructor.newInstance(handler);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private Constructor<? extends TypedListener> define(ListenerKey key) {
+        val className = BASE_NAME + "$$" + key.eventType().getName().replaceAll("[^A-Za-z0-9_]", "_") + "$" + counter.incrementAndGet();
+        val writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, BASE_NAME, null);
+
+        val init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + CONSUMER_DESCRIPTOR + ")V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitVarInsn(Opcodes.ALOAD, 1);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_NAME, "<init>", "(" + CONSUMER_DESCRIPTOR + ")V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        val handler = writer.visitMethod(Opcodes.ACC_PUBLIC, "onEvent", "(" + Type.getDescriptor(key.eventType()) + ")V", null, null);
+        val annotation = handler.visitAnnotation(Type.getDescriptor(EventHandler.class), true);
+        annotation.visit("priority", key.priority());
+        annotation.visitEnd();
+        handler.visitCode();
+        handler.visitVarInsn(Opcodes.ALOAD, 0);
+        handler.visitVarInsn(Opcodes.ALOAD, 1);
+        handler.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_NAME, "dispatch", "(" + EVENT_DESCRIPTOR + ")V", false);
+        handler.visitInsn(Opcodes.RETURN);
+        handler.visitMaxs(0, 0);
+        handler.visitEnd();
+
+        writer.visitEnd();
+        val type = (Class<? extends TypedListener>) MethodHandles.lookup().defineClass(writer.toByteArray());
+        return type.getConstructor(Consumer.class);
+    }
+
+    private record ListenerKey(Class<? extends Event> eventType, byte priority) {
+
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.quartzframework.bungee.scheduler;
 
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.scheduler.ScheduledTask;
 import net.md_5.bungee.api.scheduler.TaskScheduler;
@@ -10,8 +11,26 @@ import xyz.quartzframework.core.bean.annotation.Injectable;
 import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanPresent;
 import xyz.quartzframework.core.scheduler.Scheduler;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * {@link Scheduler} backed by the BungeeCord task scheduler.
+ * <p>
+ * BungeeCord does not expose task state, so every scheduled task is tracked in a registry keyed
+ * by task id. One-shot tasks leave the registry once they finish or fail, any task leaves it when
+ * cancelled through this scheduler, and the registry is emptied on disable, cancelling whatever is
+ * still scheduled. A task that runs after leaving the registry cancels itself instead. Repeating
+ * tasks report their run count and last duration.
+ * <p>
+ * Tasks cancelled directly through the BungeeCord {@link TaskScheduler} cannot be observed and
+ * stay registered as queued until the plugin is disabled.
+ */
 @Injectable
 @ActivateWhenBeanPresent(TaskScheduler.class)
 @RequiredArgsConstructor(onConstructor = @__(@Inject))
@@ -23,10 +42,13 @@ public class BungeeScheduler implements Scheduler {
 
     private final TaskScheduler scheduler;
 
+    private final Map<Integer, TrackedTask> tasks = new ConcurrentHashMap<>();
+
     @Override
     public int scheduleSyncDelayedTask(Runnable task, long delay) {
-        ScheduledTask scheduledTask = scheduler.schedule(plugin, session.wrap(task), delay, TimeUnit.MILLISECONDS);
-        return scheduledTask.getId();
+        val tracked = new TrackedTask(false);
+        ScheduledTask scheduledTask = scheduler.schedule(plugin, tracked.wrap(session.wrap(task)), delay, TimeUnit.MILLISECONDS);
+        return register(tracked, scheduledTask.getId());
     }
 
     @Override
@@ -36,22 +58,109 @@ public class BungeeScheduler implements Scheduler {
 
     @Override
     public int scheduleSyncRepeatingTask(Runnable task, long delay, long period) {
-        ScheduledTask scheduledTask = scheduler.schedule(plugin, session.wrap(task), delay, period, TimeUnit.MILLISECONDS);
-        return scheduledTask.getId();
+        val tracked = new TrackedTask(true);
+        ScheduledTask scheduledTask = scheduler.schedule(plugin, tracked.wrap(session.wrap(task)), delay, period, TimeUnit.MILLISECONDS);
+        return register(tracked, scheduledTask.getId());
     }
 
     @Override
     public void cancelTask(int taskId) {
         scheduler.cancel(taskId);
+        val tracked = tasks.remove(taskId);
+        if (tracked != null) {
+            tracked.state = TaskState.CANCELLED;
+        }
     }
 
     @Override
     public boolean isCurrentlyRunning(int taskId) {
-        return false;
+        val tracked = tasks.get(taskId);
+        return tracked != null && tracked.state == TaskState.RUNNING;
     }
 
     @Override
     public boolean isQueued(int taskId) {
-        return false;
+        val tracked = tasks.get(taskId);
+        return tracked != null && tracked.state == TaskState.QUEUED;
+    }
+
+    /**
+     * Cancels every task still tracked by this scheduler.
+     */
+    @PreDestroy
+    public void cancelAll() {
+        for (val taskId : tasks.keySet()) {
+            cancelTask(taskId);
+        }
+    }
+
+    public Optional<TaskStatus> getTaskStatus(int taskId) {
+        return Optional.ofNullable(tasks.get(taskId)).map(TrackedTask::status);
+    }
+
+    public Collection<TaskStatus> getTaskStatuses() {
+        return tasks.values().stream().map(TrackedTask::status).toList();
+    }
+
+    private int register(TrackedTask tracked, int taskId) {
+        tasks.put(taskId, tracked);
+        tracked.id = taskId;
+        if (tracked.state == TaskState.DONE) {
+            tasks.remove(taskId, tracked);
+        }
+        return taskId;
+    }
+
+    private final class TrackedTask {
+
+        private final boolean repeating;
+
+        private volatile int id = -1;
+
+        private volatile TaskState state = TaskState.QUEUED;
+
+        private volatile long runCount;
+
+        private volatile long lastDurationNanos;
+
+        private TrackedTask(boolean repeating) {
+            this.repeating = repeating;
+        }
+
+        Runnable wrap(Runnable task) {
+            return () -> {
+                if (state == TaskState.CANCELLED) return;
+                if (id != -1 && tasks.get(id) != this) {
+                    state = TaskState.CANCELLED;
+                    scheduler.cancel(id);
+                    return;
+                }
+                state = TaskState.RUNNING;
+                val start = System.nanoTime();
+                try {
+                    task.run();
+                } finally {
+                    lastDurationNanos = System.nanoTime() - start;
+                    runCount++;
+                    finish();
+                }
+            };
+        }
+
+        private void finish() {
+            if (state == TaskState.CANCELLED) return;
+            if (repeating) {
+                state = TaskState.QUEUED;
+                return;
+            }
+            state = TaskState.DONE;
+            if (id != -1) {
+                tasks.remove(id, this);
+            }
+        }
+
+        TaskStatus status() {
+            return new TaskStatus(id, state, repeating, runCount, Duration.ofNanos(lastDurationNanos));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package xyz.quartzframework.bungee.scheduler;
+
+public enum TaskState {
+
+    QUEUED,
+
+    RUNNING,
+
+    DONE,
+
+    CANCELLED
+}
@@ -0,0 +1,12 @@
+package xyz.quartzframework.bungee.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of a task tracked by {@link BungeeScheduler}.
+ *
+ * @param lastDuration duration of the last completed run, {@link Duration#ZERO} if it never ran
+ */
+public record TaskStatus(int taskId, TaskState state, boolean repeating, long runCount, Duration lastDuration) {
+
+}
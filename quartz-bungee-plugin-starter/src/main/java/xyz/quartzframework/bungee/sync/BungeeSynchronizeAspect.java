@@ -2,27 +2,103 @@ package xyz.quartzframework.bungee.sync;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.md_5.bungee.api.ProxyServer;
+import lombok.val;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import xyz.quartzframework.core.scheduler.Scheduler;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import xyz.quartzframework.bungee.session.BungeeSession;
+import xyz.quartzframework.common.sync.SynchronizedCalls;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Serializes {@code @Synchronize} calls per key on a {@link StripedSerialExecutor}.
+ * <p>
+ * BungeeCord has no main thread, so calls sharing a key (see {@link SynchronizeKey}) are run one
+ * at a time instead. Methods returning {@link CompletionStage} or {@link Future} get a future
+ * completed with the result (unwrapped when the method itself returns a future) and {@code void}
+ * methods return immediately. Callers are usually Netty IO threads, which must never wait for a
+ * result, so methods with any other return type, such as getters of a class-level
+ * {@code @Synchronize} bean, proceed on the calling thread without serialization; a warning is
+ * logged once per method.
+ */
 @Slf4j
 @Aspect
 @RequiredArgsConstructor
 public class BungeeSynchronizeAspect {
 
-    private final Scheduler scheduler;
+    private static final String GLOBAL_KEY = "global";
+
+    private final StripedSerialExecutor executor;
+
+    private final BungeeSession session;
+
+    private final Map<Method, Optional<Expression>> keyExpressions = new ConcurrentHashMap<>();
+
+    private final Set<Method> unsynchronized = ConcurrentHashMap.newKeySet();
 
-    private final ProxyServer server;
+    private final ExpressionParser parser = new SpelExpressionParser();
 
     @Around("within(@(@xyz.quartzframework.core.sync.Synchronize *) *) " +
             "|| execution(@(@xyz.quartzframework.core.sync.Synchronize *) * *(..)) " +
             "|| @within(xyz.quartzframework.core.sync.Synchronize)" +
             "|| execution(@xyz.quartzframework.core.sync.Synchronize * *(..))")
     public Object synchronizeCall(ProceedingJoinPoint joinPoint) throws Throwable {
-        // TODO: not implemented yet
-        return joinPoint.proceed();
+        val method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        val returnType = method.getReturnType();
+        if (returnType != void.class && !SynchronizedCalls.isFuture(returnType)) {
+            if (unsynchronized.add(method)) {
+                log.warn("@Synchronize method {} returns neither void nor a future, running it unsynchronized", method);
+            }
+            return joinPoint.proceed();
+        }
+        val key = resolveKey(joinPoint, method);
+        if (executor.isRunningOn(key)) {
+            return joinPoint.proceed();
+        }
+        SynchronizedCalls.checkReturnType(method);
+        val future = new CompletableFuture<>();
+        executor.execute(key, session.wrap(SynchronizedCalls.task(future, joinPoint::proceed)));
+        if (returnType == void.class) {
+            SynchronizedCalls.logFailure(future, "synchronized task");
+            return null;
+        }
+        return future;
+    }
+
+    private Object resolveKey(ProceedingJoinPoint joinPoint, Method method) {
+        val expression = keyExpressions.computeIfAbsent(method, this::parseKeyExpression);
+        if (expression.isPresent()) {
+            val context = new StandardEvaluationContext(session.getSender());
+            val parameters = method.getParameters();
+            val args = joinPoint.getArgs();
+            for (int i = 0; i < parameters.length; i++) {
+                context.setVariable(parameters[i].getName(), args[i]);
+            }
+            return expression.get().getValue(context);
+        }
+        val senderId = session.getSenderId(session.getSender());
+        return senderId != null ? senderId : GLOBAL_KEY;
+    }
+
+    private Optional<Expression> parseKeyExpression(Method method) {
+        var annotation = AnnotatedElementUtils.findMergedAnnotation(method, SynchronizeKey.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), SynchronizeKey.class);
+        }
+        return Optional.ofNullable(annotation).map(a -> parser.parseExpression(a.value()));
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,14 @@ package xyz.quartzframework.bungee.sync;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.md_5.bungee.api.ProxyServer;
+import xyz.quartzframework.bungee.session.BungeeSession;
 import xyz.quartzframework.core.bean.annotation.NoProxy;
 import xyz.quartzframework.core.bean.annotation.Provide;
 import xyz.quartzframework.core.condition.annotation.ActivateWhenAnnotationPresent;
 import xyz.quartzframework.core.context.annotation.ContextBootstrapper;
-import xyz.quartzframework.core.scheduler.Scheduler;
+import xyz.quartzframework.core.property.Property;
 import xyz.quartzframework.core.sync.EnableMainThreadSynchronization;
+import xyz.quartzframework.core.task.TaskFactory;
 
 @Slf4j
 @NoProxy
@@ -16,14 +17,23 @@ import xyz.quartzframework.core.sync.EnableMainThreadSynchronization;
 @ContextBootstrapper
 public class BungeeSynchronizeAspectContextBootstrapper {
 
-    private final Scheduler scheduler;
+    private final TaskFactory taskFactory;
 
-    private final ProxyServer server;
+    private final BungeeSession session;
+
+    @Property("${quartz.sync.stripes:16}")
+    private int stripes;
+
+    @Provide
+    @ActivateWhenAnnotationPresent(EnableMainThreadSynchronization.class)
+    StripedSerialExecutor synchronizeExecutor() {
+        return new StripedSerialExecutor(taskFactory, stripes);
+    }
 
     @Provide
     @ActivateWhenAnnotationPresent(EnableMainThreadSynchronization.class)
-    BungeeSynchronizeAspect synchronizeAspect() {
+    BungeeSynchronizeAspect synchronizeAspect(StripedSerialExecutor synchronizeExecutor) {
         log.info("Enabling @Synchronize feature");
-        return new BungeeSynchronizeAspect(scheduler, server);
+        return new BungeeSynchronizeAspect(synchronizeExecutor, session);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package xyz.quartzframework.bungee.sync;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import xyz.quartzframework.core.task.TaskFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks sequentially per key on top of the {@code default} task pool.
+ * <p>
+ * Keys are hashed onto a fixed number of stripes; tasks of a stripe run one at a time in
+ * submission order, while different stripes run concurrently. No thread is blocked waiting for
+ * a stripe: a stripe only occupies a pool thread while it has queued tasks. A task that throws is
+ * logged and does not stop the tasks queued behind it. When the pool rejects a stripe's drain,
+ * the task is taken back and the rejection rethrown; tasks other threads queued meanwhile are run
+ * on the calling thread, since no drain is left to pick them up.
+ */
+@Slf4j
+public class StripedSerialExecutor {
+
+    private static final ThreadLocal<Stripe> currentStripe = new ThreadLocal<>();
+
+    private final Executor executor;
+
+    private final Stripe[] stripes;
+
+    public StripedSerialExecutor(TaskFactory taskFactory, int stripeCount) {
+        this(task -> taskFactory.submit("default", () -> {
+            task.run();
+            return null;
+        }), stripeCount);
+    }
+
+    public StripedSerialExecutor(Executor executor, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.executor = executor;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void execute(Object key, Runnable task) {
+        stripe(key).execute(task);
+    }
+
+    /**
+     * Whether the calling thread is currently running a task of the stripe owning the key.
+     */
+    public boolean isRunningOn(Object key) {
+        return currentStripe.get() == stripe(key);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getQueueDepth(int stripe) {
+        return stripes[stripe].depth.get();
+    }
+
+    public int[] getQueueDepths() {
+        val depths = new int[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            depths[i] = stripes[i].depth.get();
+        }
+        return depths;
+    }
+
+    private Stripe stripe(Object key) {
+        val hash = key == null ? 0 : key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private final class Stripe {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger depth = new AtomicInteger();
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            if (depth.getAndIncrement() != 0) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException | Error e) {
+                tasks.remove(task);
+                if (depth.decrementAndGet() > 0) drain();
+                throw e;
+            }
+        }
+
+        private void drain() {
+            val previous = currentStripe.get();
+            currentStripe.set(this);
+            try {
+                int remaining;
+                do {
+                    try {
+                        tasks.poll().run();
+                    } catch (Throwable t) {
+                        log.error("Error in striped task", t);
+                    } finally {
+                        remaining = depth.decrementAndGet();
+                    }
+                } while (remaining > 0);
+            } finally {
+                if (previous != null) {
+                    currentStripe.set(previous);
+                } else {
+                    currentStripe.remove();
+                }
+            }
+        }
+    }
+}
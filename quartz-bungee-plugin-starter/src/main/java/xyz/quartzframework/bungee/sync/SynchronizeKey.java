@@ -0,0 +1,18 @@
+package xyz.quartzframework.bungee.sync;
+
+import java.lang.annotation.*;
+
+/**
+ * SpEL expression selecting the key {@code @Synchronize} calls are serialized on.
+ * <p>
+ * The expression is evaluated against the current sender, with the method arguments available
+ * as variables by parameter name, e.g. {@code @SynchronizeKey("#party.id")}. Without this
+ * annotation, calls are keyed by the current sender (the player UUID for players).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface SynchronizeKey {
+
+    String value();
+}
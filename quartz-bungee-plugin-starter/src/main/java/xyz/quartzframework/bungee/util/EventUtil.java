@@ -2,23 +2,40 @@ package xyz.quartzframework.bungee.util;
 
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
+import lombok.val;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.plugin.Event;
 import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.Function;
 
 @UtilityClass
 public class EventUtil {
 
-    private static final Map<Class<? extends Event>, Method> senderGetters = new HashMap<>();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final Function<Object, CommandSender> NO_SENDER = event -> null;
+
+    /**
+     * Sender getter per event class. Resolved once per class, including classes without any
+     * sender getter, and safe to query from async event threads.
+     */
+    private static final ClassValue<Function<Object, CommandSender>> senderGetters = new ClassValue<>() {
+
+        @Override
+        protected Function<Object, CommandSender> computeValue(Class<?> type) {
+            val method = findSenderMethod(type);
+            return method == null ? NO_SENDER : toGetter(method);
+        }
+    };
 
     public CommandSender getSender(Event event) {
         if (event instanceof PlayerDisconnectEvent) {
@@ -28,16 +45,10 @@ public class EventUtil {
     }
 
     private CommandSender getInferredSender(Event event) {
-        return getSenderMethod(event.getClass())
-                .map(method -> (CommandSender) getValue(event, method))
-                .orElse(null);
+        return senderGetters.get(event.getClass()).apply(event);
     }
 
-    private Optional<Method> getSenderMethod(Class<? extends Event> eventClass) {
-        return Optional.ofNullable(senderGetters.computeIfAbsent(eventClass, EventUtil::findSenderMethod));
-    }
-
-    private Method findSenderMethod(Class<? extends Event> c) {
+    private Method findSenderMethod(Class<?> c) {
         return Arrays.stream(ReflectionUtils.getAllDeclaredMethods(c))
                 .filter(method -> method.getName().startsWith("get"))
                 .filter(method -> method.getParameters().length == 0)
@@ -49,8 +60,14 @@ public class EventUtil {
     }
 
     @SneakyThrows
-    private Object getValue(Object instance, Method method) {
+    private Function<Object, CommandSender> toGetter(Method method) {
         method.setAccessible(true);
-        return method.invoke(instance);
+        val handle = MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        return event -> (CommandSender) invoke(handle, event);
+    }
+
+    @SneakyThrows
+    private Object invoke(MethodHandle handle, Object event) {
+        return handle.invokeExact(event);
     }
 }
\ No newline at end of file
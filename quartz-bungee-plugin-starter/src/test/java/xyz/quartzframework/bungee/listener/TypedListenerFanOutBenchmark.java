@@ -0,0 +1,172 @@
+package xyz.quartzframework.bungee.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.val;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import org.openjdk.jmh.annotations.*;
+import xyz.quartzframework.common.util.ListenerInvokers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of posting one event to a proxy with {@code listeners} Quartz listener methods spread over
+ * five event types.
+ * <p>
+ * {@code catchAll} registers every method the way listeners were registered before, against the
+ * base {@link Event} type, so each post reaches all of them and each filters by type before its
+ * reflective call. {@code typed} registers {@link TypedListenerGenerator} listeners, so a post only
+ * reaches the methods declaring its type. Both go through a minimal bus that indexes handlers by
+ * their parameter type, posts to the handlers of the event's class and its superclasses, and calls
+ * them with {@link Method#invoke}. Sender resolution and the session are left out since they cost
+ * the same per delivered call.
+ * <p>
+ * Run with {@code mvn -Pjmh verify -pl quartz-bungee-plugin-starter -am -Djmh.args=TypedListenerFanOut}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedListenerFanOutBenchmark {
+
+    public static class ChatEvent extends Event {
+    }
+
+    public static class PingEvent extends Event {
+    }
+
+    public static class ServerSwitchEvent extends Event {
+    }
+
+    public static class LoginEvent extends Event {
+    }
+
+    public static class DisconnectEvent extends Event {
+    }
+
+    public static class Handlers {
+
+        private long handled;
+
+        public void onChat(ChatEvent event) {
+            handled++;
+        }
+
+        public void onPing(PingEvent event) {
+            handled++;
+        }
+
+        public void onServerSwitch(ServerSwitchEvent event) {
+            handled++;
+        }
+
+        public void onLogin(LoginEvent event) {
+            handled++;
+        }
+
+        public void onDisconnect(DisconnectEvent event) {
+            handled++;
+        }
+    }
+
+    /**
+     * Listener shape used before typed listeners: subscribed to every event, filtering by type.
+     */
+    @RequiredArgsConstructor
+    public static class CatchAllListener implements Listener {
+
+        private final Object bean;
+
+        private final Method method;
+
+        private final Class<?> eventType;
+
+        @SneakyThrows
+        @EventHandler
+        public void onEvent(Event event) {
+            if (eventType.isInstance(event)) {
+                method.invoke(bean, event);
+            }
+        }
+    }
+
+    private record Registration(Listener listener, Method method) {
+
+    }
+
+    /**
+     * Handlers indexed by the parameter type of their {@code @EventHandler} method.
+     */
+    private static final class EventBus {
+
+        private final Map<Class<?>, List<Registration>> byType = new HashMap<>();
+
+        void register(Listener listener) {
+            for (val method : listener.getClass().getMethods()) {
+                if (method.isAnnotationPresent(EventHandler.class) && method.getParameterCount() == 1) {
+                    byType.computeIfAbsent(method.getParameterTypes()[0], type -> new ArrayList<>())
+                            .add(new Registration(listener, method));
+                }
+            }
+        }
+
+        @SneakyThrows
+        void post(Event event) {
+            for (Class<?> type = event.getClass(); type != null; type = type.getSuperclass()) {
+                for (val registration : byType.getOrDefault(type, List.of())) {
+                    registration.method().invoke(registration.listener(), event);
+                }
+            }
+        }
+    }
+
+    @Param({"10", "150"})
+    public int listeners;
+
+    private final Event event = new ChatEvent();
+
+    private final Handlers handlers = new Handlers();
+
+    private final EventBus catchAllBus = new EventBus();
+
+    private final EventBus typedBus = new EventBus();
+
+    @Setup
+    public void setup() {
+        val methods = Arrays.stream(Handlers.class.getDeclaredMethods())
+                .filter(method -> method.getName().startsWith("on"))
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+        for (int i = 0; i < listeners; i++) {
+            val method = methods.get(i % methods.size());
+            @SuppressWarnings("unchecked")
+            val eventType = (Class<? extends Event>) method.getParameterTypes()[0];
+            val invoker = ListenerInvokers.of(method);
+            catchAllBus.register(new CatchAllListener(handlers, method, eventType));
+            typedBus.register(TypedListenerGenerator.generate(eventType, (byte) 0, posted -> invoker.accept(handlers, posted)));
+        }
+    }
+
+    @Benchmark
+    public long catchAll() {
+        catchAllBus.post(event);
+        return handlers.handled;
+    }
+
+    @Benchmark
+    public long typed() {
+        typedBus.post(event);
+        return handlers.handled;
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.quartzframework.bungee.listener;
+
+import lombok.val;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.event.EventHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypedListenerGeneratorTest {
+
+    static class JoinEvent extends Event {
+    }
+
+    @Test
+    void testHandlerDeclaresConcreteEventType() throws Exception {
+        val listener = TypedListenerGenerator.generate(JoinEvent.class, (byte) 64, event -> {
+        });
+        val method = listener.getClass().getMethod("onEvent", JoinEvent.class);
+        val annotation = method.getAnnotation(EventHandler.class);
+        assertNotNull(annotation);
+        assertEquals(64, annotation.priority());
+    }
+
+    @Test
+    void testDispatchReachesHandler() throws Exception {
+        List<Event> received = new ArrayList<>();
+        val listener = TypedListenerGenerator.generate(JoinEvent.class, (byte) 0, received::add);
+        val event = new JoinEvent();
+        listener.getClass().getMethod("onEvent", JoinEvent.class).invoke(listener, event);
+        assertEquals(List.of(event), received);
+    }
+
+    @Test
+    void testClassSharedPerEventTypeAndPriority() {
+        val first = TypedListenerGenerator.generate(JoinEvent.class, (byte) 0, event -> {
+        });
+        val second = TypedListenerGenerator.generate(JoinEvent.class, (byte) 0, event -> {
+        });
+        val otherPriority = TypedListenerGenerator.generate(JoinEvent.class, (byte) 32, event -> {
+        });
+        assertSame(first.getClass(), second.getClass());
+        assertNotSame(first.getClass(), otherPriority.getClass());
+    }
+
+    @Test
+    void testAnonymousAndLocalEventTypes() throws Exception {
+        class LocalEvent extends Event {
+        }
+        val anonymous = new Event() {
+        };
+        List<Event> received = new ArrayList<>();
+        val anonymousListener = TypedListenerGenerator.generate(anonymous.getClass(), (byte) 0, received::add);
+        val localListener = TypedListenerGenerator.generate(LocalEvent.class, (byte) 0, received::add);
+        assertNotSame(anonymousListener.getClass(), localListener.getClass());
+        assertTrue(anonymousListener.getClass().getName().contains("TypedListenerGeneratorTest"));
+        anonymousListener.getClass().getMethod("onEvent", anonymous.getClass()).invoke(anonymousListener, anonymous);
+        assertEquals(List.of(anonymous), received);
+    }
+}
@@ -0,0 +1,148 @@
+package xyz.quartzframework.bungee.scheduler;
+
+import lombok.val;
+import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.api.scheduler.ScheduledTask;
+import net.md_5.bungee.api.scheduler.TaskScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.bungee.session.BungeeSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BungeeSchedulerTest {
+
+    static class ManualTaskScheduler implements TaskScheduler {
+
+        final Map<Integer, Runnable> scheduled = new HashMap<>();
+
+        int nextId;
+
+        void run(int id) {
+            scheduled.get(id).run();
+        }
+
+        @Override
+        public void cancel(int id) {
+            scheduled.remove(id);
+        }
+
+        @Override
+        public void cancel(ScheduledTask task) {
+            cancel(task.getId());
+        }
+
+        @Override
+        public int cancel(Plugin plugin) {
+            val count = scheduled.size();
+            scheduled.clear();
+            return count;
+        }
+
+        @Override
+        public ScheduledTask runAsync(Plugin plugin, Runnable task) {
+            return schedule(plugin, task, 0, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public ScheduledTask schedule(Plugin plugin, Runnable task, long delay, TimeUnit unit) {
+            val id = nextId++;
+            scheduled.put(id, task);
+            return new ScheduledTask() {
+
+                @Override
+                public int getId() {
+                    return id;
+                }
+
+                @Override
+                public Plugin getOwner() {
+                    return plugin;
+                }
+
+                @Override
+                public Runnable getTask() {
+                    return task;
+                }
+
+                @Override
+                public void cancel() {
+                    ManualTaskScheduler.this.cancel(id);
+                }
+            };
+        }
+
+        @Override
+        public ScheduledTask schedule(Plugin plugin, Runnable task, long delay, long period, TimeUnit unit) {
+            return schedule(plugin, task, delay, unit);
+        }
+    }
+
+    private ManualTaskScheduler taskScheduler;
+
+    private BungeeScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        taskScheduler = new ManualTaskScheduler();
+        scheduler = new BungeeScheduler(new BungeeSession(null), null, taskScheduler);
+    }
+
+    @Test
+    void testOneShotTaskLeavesRegistryOnCompletion() {
+        val id = scheduler.scheduleSyncDelayedTask(() -> {
+        }, 10);
+        assertTrue(scheduler.isQueued(id));
+        taskScheduler.run(id);
+        assertTrue(scheduler.getTaskStatus(id).isEmpty());
+    }
+
+    @Test
+    void testFailingOneShotTaskLeavesRegistry() {
+        val id = scheduler.scheduleSyncDelayedTask(() -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThrows(IllegalStateException.class, () -> taskScheduler.run(id));
+        assertTrue(scheduler.getTaskStatus(id).isEmpty());
+    }
+
+    @Test
+    void testRepeatingTaskStaysUntilCancelled() {
+        val id = scheduler.scheduleSyncRepeatingTask(() -> {
+        }, 0, 50);
+        taskScheduler.run(id);
+        taskScheduler.run(id);
+        val status = scheduler.getTaskStatus(id).orElseThrow();
+        assertEquals(2, status.runCount());
+        assertEquals(TaskState.QUEUED, status.state());
+        scheduler.cancelTask(id);
+        assertTrue(scheduler.getTaskStatus(id).isEmpty());
+        assertFalse(taskScheduler.scheduled.containsKey(id));
+    }
+
+    @Test
+    void testCancelAllClearsRegistryAndCancelsTasks() {
+        scheduler.scheduleSyncDelayedTask(() -> {
+        }, 10);
+        scheduler.scheduleSyncRepeatingTask(() -> {
+        }, 0, 50);
+        scheduler.cancelAll();
+        assertTrue(scheduler.getTaskStatuses().isEmpty());
+        assertTrue(taskScheduler.scheduled.isEmpty());
+    }
+
+    @Test
+    void testUntrackedTaskCancelsItself() {
+        val runs = new AtomicInteger();
+        val id = scheduler.scheduleSyncRepeatingTask(runs::incrementAndGet, 0, 50);
+        val task = taskScheduler.scheduled.get(id);
+        scheduler.cancelAll();
+        task.run();
+        assertEquals(0, runs.get());
+    }
+}
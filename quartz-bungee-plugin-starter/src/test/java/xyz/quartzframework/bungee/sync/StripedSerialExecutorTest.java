@@ -0,0 +1,123 @@
+package xyz.quartzframework.bungee.sync;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedSerialExecutorTest {
+
+    private ExecutorService pool;
+
+    private StripedSerialExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        pool = Executors.newFixedThreadPool(4);
+        executor = new StripedSerialExecutor(pool, 4);
+    }
+
+    @AfterEach
+    void cleanup() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testThrowingTaskDoesNotStallItsKey() throws Exception {
+        val ran = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute("key", ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+        val again = new CountDownLatch(1);
+        executor.execute("key", again::countDown);
+        assertTrue(again.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTasksOfAKeyRunInOrder() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        val done = new CountDownLatch(1);
+        for (int i = 0; i < 100; i++) {
+            val value = i;
+            executor.execute("key", () -> order.add(value));
+        }
+        executor.execute("key", done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void testRunningOnKey() throws Exception {
+        val inside = new boolean[1];
+        val done = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            inside[0] = executor.isRunningOn("key");
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(inside[0]);
+        assertFalse(executor.isRunningOn("key"));
+    }
+
+    @Test
+    void testRejectedDrainDoesNotStallItsKey() {
+        val accepting = new AtomicBoolean();
+        val striped = new StripedSerialExecutor(task -> {
+            if (!accepting.get()) throw new RejectedExecutionException("shut down");
+            task.run();
+        }, 1);
+        val ran = new AtomicInteger();
+        assertThrows(RejectedExecutionException.class, () -> striped.execute("key", ran::incrementAndGet));
+        assertEquals(0, striped.getQueueDepth(0));
+        assertEquals(0, ran.get());
+        accepting.set(true);
+        striped.execute("key", ran::incrementAndGet);
+        assertEquals(1, ran.get());
+        assertEquals(0, striped.getQueueDepth(0));
+    }
+
+    @Test
+    void testTasksQueuedBehindARejectedDrainStillRun() {
+        val ran = new ArrayList<String>();
+        val striped = new StripedSerialExecutor[1];
+        striped[0] = new StripedSerialExecutor(task -> {
+            striped[0].execute("key", () -> ran.add("queued meanwhile"));
+            throw new RejectedExecutionException("shut down");
+        }, 1);
+        assertThrows(RejectedExecutionException.class, () -> striped[0].execute("key", () -> ran.add("rejected")));
+        assertEquals(List.of("queued meanwhile"), ran);
+        assertEquals(0, striped[0].getQueueDepth(0));
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sum(executor.getQueueDepths()) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, sum(executor.getQueueDepths()));
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) sum += value;
+        return sum;
+    }
+}
@@ -0,0 +1,245 @@
+package xyz.quartzframework.data.async;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.metrics.Histogram;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for blocking JDBC work, sized to the connection pool so queued tasks wait here
+ * instead of inside the pool.
+ * <p>
+ * On runtimes with virtual threads each task gets its own virtual thread and a semaphore caps how
+ * many run at once; otherwise a fixed pool of platform threads is used. Either way at most
+ * {@code queueCapacity} tasks may wait, and submissions past that fail with a
+ * {@link RejectedExecutionException} instead of blocking the caller.
+ * <p>
+ * Tasks never see the submitting thread's {@link EntityManagerContext}: an EntityManager is not
+ * thread-safe, so each task starts with an empty context and anything it binds is closed when it
+ * ends. Work submitted from inside a transaction therefore runs outside of it.
+ */
+@Slf4j
+public class DatabaseExecutor implements Executor, AutoCloseable {
+
+    private final int concurrency;
+
+    private final int queueCapacity;
+
+    @Getter
+    private final boolean virtualThreads;
+
+    @Nullable
+    private final Executor mainThreadExecutor;
+
+    @Getter
+    private final boolean completeOnMainThread;
+
+    private final ExecutorService delegate;
+
+    @Nullable
+    private final Semaphore permits;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Time between submission and start, in microseconds.
+     */
+    @Getter
+    private final Histogram queueWaitMicros = new Histogram();
+
+    /**
+     * Time spent running each task, in microseconds.
+     */
+    @Getter
+    private final Histogram executionMicros = new Histogram();
+
+    public DatabaseExecutor(int concurrency,
+                            int queueCapacity,
+                            boolean virtualThreads,
+                            @Nullable Executor mainThreadExecutor,
+                            boolean completeOnMainThread) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.completeOnMainThread = completeOnMainThread && mainThreadExecutor != null;
+        val virtualFactory = virtualThreads ? virtualThreadFactory() : null;
+        this.virtualThreads = virtualFactory != null;
+        if (virtualFactory != null) {
+            this.delegate = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.MILLISECONDS,
+                    new SynchronousQueue<>(), virtualFactory);
+            this.permits = new Semaphore(concurrency, true);
+        } else {
+            this.delegate = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), platformThreadFactory());
+            this.permits = null;
+        }
+        log.info("JPA async executor: {} concurrent tasks on {} threads, queue capacity {}",
+                concurrency, this.virtualThreads ? "virtual" : "platform", this.queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (queued.incrementAndGet() > queueCapacity + concurrency) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException("JPA async queue is full (" + queueCapacity + " waiting tasks)");
+        }
+        val submittedAt = System.nanoTime();
+        try {
+            delegate.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the callable on this executor. The future completes on the main thread when
+     * {@link #isCompleteOnMainThread()} is set, otherwise on the database thread.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> callable) {
+        val future = new CompletableFuture<T>();
+        try {
+            execute(() -> {
+                try {
+                    future.complete(callable.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return completeOnMainThread ? onMainThread(future) : future;
+    }
+
+    /**
+     * Same result as the given future, completed on the main thread. When the main thread no longer
+     * takes tasks, e.g. while the plugin is disabled, it is completed on the completing thread
+     * instead, so callers are never left waiting.
+     */
+    public <T> CompletableFuture<T> onMainThread(CompletableFuture<T> future) {
+        if (mainThreadExecutor == null) {
+            throw new IllegalStateException("No main thread executor available");
+        }
+        val result = new CompletableFuture<T>();
+        future.whenComplete((value, error) -> {
+            try {
+                mainThreadExecutor.execute(() -> complete(result, value, error));
+            } catch (RuntimeException e) {
+                log.debug("Main thread rejected a JPA async completion, completing on {}", Thread.currentThread().getName(), e);
+                complete(result, value, error);
+            }
+        });
+        return result;
+    }
+
+    @Nullable
+    public Executor getMainThreadExecutor() {
+        return mainThreadExecutor;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Tasks submitted and not yet started.
+     */
+    public int getQueuedCount() {
+        return Math.max(0, queued.get() - active.get());
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("JPA async executor did not terminate in time, {} tasks dropped", delegate.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        if (permits != null) permits.acquireUninterruptibly();
+        try {
+            active.incrementAndGet();
+            val startedAt = System.nanoTime();
+            queueWaitMicros.record((startedAt - submittedAt) / 1_000L);
+            val previous = EntityManagerContext.get();
+            EntityManagerContext.clear();
+            try {
+                task.run();
+            } finally {
+                val leaked = EntityManagerContext.get();
+                if (leaked != null) {
+                    EntityManagerContext.close(leaked);
+                }
+                if (previous != null) {
+                    EntityManagerContext.set(previous);
+                } else {
+                    EntityManagerContext.clear();
+                }
+                executionMicros.record((System.nanoTime() - startedAt) / 1_000L);
+                active.decrementAndGet();
+            }
+        } finally {
+            queued.decrementAndGet();
+            if (permits != null) permits.release();
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, @Nullable T value, @Nullable Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        val counter = new AtomicInteger();
+        return task -> {
+            val thread = new Thread(task, "quartz-jpa-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Virtual thread factory through reflection, so the module still targets Java 17.
+     */
+    @Nullable
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            val builderType = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "quartz-jpa-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package xyz.quartzframework.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process second-level and query cache regions backed by Caffeine.
+ * <p>
+ * Every region is bounded by {@value #DEFAULT_TTL_MILLIS} and {@value #DEFAULT_MAX_SIZE} unless
+ * {@value #REGIONS} overrides it, as a comma separated list of {@code region=ttlMillis/maxSize}
+ * entries. Entity regions are named after the entity class unless {@code @Cache(region)} says
+ * otherwise. The update timestamps region is never bounded, since evicting from it could serve
+ * stale query results.
+ */
+@Slf4j
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    public static final String DEFAULT_TTL_MILLIS = "quartz.data.hibernate.cache.default-ttl-ms";
+
+    public static final String DEFAULT_MAX_SIZE = "quartz.data.hibernate.cache.default-max-size";
+
+    public static final String REGIONS = "quartz.data.hibernate.cache.regions";
+
+    private final Map<String, Cache<Object, Object>> caches = new ConcurrentHashMap<>();
+
+    private final Map<String, RegionSettings> regionSettings = new ConcurrentHashMap<>();
+
+    private RegionSettings defaults = new RegionSettings(Duration.ofMinutes(10), 10_000);
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        defaults = new RegionSettings(
+                Duration.ofMillis(longValue(configValues.get(DEFAULT_TTL_MILLIS), defaults.ttl().toMillis())),
+                longValue(configValues.get(DEFAULT_MAX_SIZE), defaults.maxSize()));
+        val regions = configValues.get(REGIONS);
+        if (regions == null || regions.toString().isBlank()) return;
+        for (val entry : regions.toString().split(",")) {
+            val parts = entry.trim().split("[=/]");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cache region setting '" + entry + "', expected region=ttlMillis/maxSize");
+            }
+            regionSettings.put(parts[0].trim(), new RegionSettings(
+                    Duration.ofMillis(Long.parseLong(parts[1].trim())),
+                    Long.parseLong(parts[2].trim())));
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        caches.values().forEach(Cache::invalidateAll);
+        caches.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(cache(regionConfig.getRegionName(), true));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(cache(regionName, true));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(cache(regionName, false));
+    }
+
+    /**
+     * Hit, miss and eviction counters per region name.
+     */
+    public Map<String, CacheStats> getStatistics() {
+        val statistics = new TreeMap<String, CacheStats>();
+        caches.forEach((name, cache) -> statistics.put(name, cache.stats()));
+        return statistics;
+    }
+
+    public long getSize(String regionName) {
+        val cache = caches.get(regionName);
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private Cache<Object, Object> cache(String regionName, boolean bounded) {
+        return caches.computeIfAbsent(regionName, name -> {
+            val builder = Caffeine.newBuilder().recordStats();
+            if (bounded) {
+                val settings = regionSettings.getOrDefault(unqualified(name), defaults);
+                builder.expireAfterWrite(settings.ttl()).maximumSize(settings.maxSize());
+                log.debug("Cache region '{}': ttl={}, maxSize={}", name, settings.ttl(), settings.maxSize());
+            }
+            return builder.build();
+        });
+    }
+
+    private String unqualified(String regionName) {
+        val prefix = getOptions().getCacheRegionPrefix();
+        return prefix != null && !prefix.isEmpty() && regionName.startsWith(prefix + ".")
+                ? regionName.substring(prefix.length() + 1)
+                : regionName;
+    }
+
+    private static long longValue(Object value, long defaultValue) {
+        return value == null || value.toString().isBlank() ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private record RegionSettings(Duration ttl, long maxSize) {
+
+    }
+}
@@ -0,0 +1,53 @@
+package xyz.quartzframework.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+@RequiredArgsConstructor
+class CaffeineStorageAccess implements DomainDataStorageAccess {
+
+    private final Cache<Object, Object> cache;
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void release() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,122 @@
+package xyz.quartzframework.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.val;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Total counts for paged queries, kept for a bounded staleness window.
+ * <p>
+ * Entries are keyed by entity class, a stable query identity (a query method, or the rendered
+ * criteria of a specification) and arguments, and live in a size-bounded Caffeine cache that
+ * evicts the least useful entries when full. Each entity class has a generation that is part of
+ * the key: writes made through a storage bump the generation of its entity class, so its counts
+ * stop matching at once and age out of the cache, without scanning it. Other writes become visible
+ * once the entry expires.
+ * <p>
+ * Counts taken inside a transaction bypass the cache, since they can include its uncommitted
+ * writes, and writes in a transaction bump the generation again once it completes.
+ */
+public class CountCache {
+
+    private final Cache<Key, Entry> entries;
+
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Duration defaultTtl;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public CountCache(Duration defaultTtl, int maxEntries) {
+        this.defaultTtl = defaultTtl;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Key, Entry>() {
+
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public long get(Class<?> entityClass, Object query, Object[] args, LongSupplier counter) {
+        return get(entityClass, query, args, defaultTtl, counter);
+    }
+
+    public long get(Class<?> entityClass, Object query, Object[] args, Duration ttl, LongSupplier counter) {
+        if (EntityManagerContext.inTransaction()) return counter.getAsLong();
+        val key = new Key(entityClass, generation(entityClass).get(), query, Arrays.asList(args.clone()));
+        val cached = entries.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.count();
+        }
+        misses.increment();
+        val count = counter.getAsLong();
+        entries.put(key, new Entry(count, ttl.toNanos()));
+        return count;
+    }
+
+    public void invalidate(Class<?> entityClass) {
+        generation(entityClass).incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        entries.invalidateAll();
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private AtomicLong generation(Class<?> entityClass) {
+        return generations.computeIfAbsent(entityClass, type -> new AtomicLong());
+    }
+
+    private record Key(Class<?> entityClass, long generation, Object query, List<Object> args) {
+
+    }
+
+    private record Entry(long count, long ttlNanos) {
+
+    }
+}
@@ -0,0 +1,28 @@
+package xyz.quartzframework.data.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Settings of the read-through cache used by {@code CachingJPAStorage} for this entity. Values
+ * left at their defaults fall back to the {@code quartz.data.jpa.entity-cache.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EntityCache {
+
+    /**
+     * Maximum number of cached entities, or {@code -1} for the configured default.
+     */
+    long maxSize() default -1;
+
+    /**
+     * Expiry time in milliseconds, or {@code -1} for the configured default.
+     */
+    long ttlMillis() default -1;
+
+    EvictionPolicy policy() default EvictionPolicy.EXPIRE_AFTER_WRITE;
+
+}
@@ -0,0 +1,24 @@
+package xyz.quartzframework.data.cache;
+
+/**
+ * When entries of an {@link EntityCache} expire. Every cache is also bounded by its maximum size,
+ * evicting the entries least likely to be read again.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Expires an entry a fixed time after it was loaded.
+     */
+    EXPIRE_AFTER_WRITE,
+
+    /**
+     * Expires an entry once it has not been read for the configured time.
+     */
+    EXPIRE_AFTER_ACCESS,
+
+    /**
+     * Never expires; entries leave only through size eviction or invalidation.
+     */
+    SIZE_ONLY
+
+}
@@ -8,6 +8,7 @@ import xyz.quartzframework.core.context.annotation.Configurer;
 import xyz.quartzframework.data.helper.DataSourceBuilder;
 import xyz.quartzframework.data.properties.HikariProperties;
 import xyz.quartzframework.data.properties.JPAPersistenceProperties;
+import xyz.quartzframework.data.properties.ReplicaProperties;
 
 import javax.sql.DataSource;
 import java.net.URLClassLoader;
@@ -23,9 +24,11 @@ public class DataSourceConfigurer {
 
     private final JPAPersistenceProperties jpaProperties;
 
+    private final ReplicaProperties replicaProperties;
+
     @Provide
     @ActivateWhenBeanMissing(DataSource.class)
     public DataSource dataSource() {
-        return DataSourceBuilder.build(jpaProperties, hikariProperties, classLoader);
+        return DataSourceBuilder.build(jpaProperties, hikariProperties, replicaProperties, classLoader);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package xyz.quartzframework.data.configurer;
 
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.*;
 import jakarta.persistence.spi.ClassTransformer;
 import jakarta.persistence.spi.PersistenceUnitInfo;
@@ -14,7 +15,11 @@ import xyz.quartzframework.core.QuartzPlugin;
 import xyz.quartzframework.core.bean.annotation.Provide;
 import xyz.quartzframework.core.bean.factory.PluginBeanFactory;
 import xyz.quartzframework.core.context.annotation.ContextBootstrapper;
+import xyz.quartzframework.core.scheduler.Scheduler;
 import xyz.quartzframework.data.EnableTransactionalSupport;
+import xyz.quartzframework.data.async.DatabaseExecutor;
+import xyz.quartzframework.data.cache.CaffeineRegionFactory;
+import xyz.quartzframework.data.cache.CountCache;
 import xyz.quartzframework.data.entity.EntityDefinition;
 import xyz.quartzframework.data.entity.EntityRegistrar;
 import xyz.quartzframework.data.helper.AutoDialectHelper;
@@ -26,6 +31,8 @@ import xyz.quartzframework.data.properties.JPAPersistenceProperties;
 import xyz.quartzframework.data.query.CompositeQueryParser;
 import xyz.quartzframework.data.query.HQLQueryParser;
 import xyz.quartzframework.data.query.NativeQueryParser;
+import xyz.quartzframework.data.routing.ReplicaRoutingDataSource;
+import xyz.quartzframework.data.storage.HibernateJPAStorage;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -33,6 +40,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.time.Duration;
 import java.util.*;
 
 @Slf4j
@@ -167,11 +175,46 @@ public class HibernateBootstrapper {
         };
     }
 
+    @Provide
+    CaffeineRegionFactory caffeineRegionFactory() {
+        return new CaffeineRegionFactory();
+    }
+
     @Provide
     EntityManagerFactory entityManagerFactory(HibernatePersistenceProvider provider,
                                               PersistenceUnitInfo persistenceUnitInfo,
-                                              DataSource dataSource) {
-        return provider.createContainerEntityManagerFactory(persistenceUnitInfo, getHibernateSettings(dataSource));
+                                              DataSource dataSource,
+                                              CaffeineRegionFactory regionFactory) {
+        return provider.createContainerEntityManagerFactory(persistenceUnitInfo, getHibernateSettings(dataSource, regionFactory));
+    }
+
+    @Provide
+    CountCache countCache() {
+        return new CountCache(Duration.ofMillis(jpaProperties.getCountCacheTtlMillis()), jpaProperties.getCountCacheMaxEntries());
+    }
+
+    /**
+     * Executor behind {@code AsyncJPAStorage}, running as many tasks at once as the pool has
+     * connections unless {@code quartz.data.jpa.async.threads} says otherwise.
+     */
+    @Provide
+    DatabaseExecutor databaseExecutor(DataSource dataSource, Scheduler scheduler) {
+        int concurrency = jpaProperties.getAsyncThreads();
+        if (concurrency <= 0) {
+            if (dataSource instanceof ReplicaRoutingDataSource routing) {
+                concurrency = routing.getPrimary().getMaximumPoolSize();
+            } else if (dataSource instanceof HikariDataSource hikari) {
+                concurrency = hikari.getMaximumPoolSize();
+            } else {
+                concurrency = jpaProperties.getConnectionPoolSize();
+            }
+        }
+        return new DatabaseExecutor(
+                Math.max(1, concurrency),
+                jpaProperties.getAsyncQueueCapacity(),
+                jpaProperties.isAsyncVirtualThreads(),
+                scheduler::scheduleSyncDelayedTask,
+                jpaProperties.isAsyncCompleteOnMainThread());
     }
 
     @Provide
@@ -189,7 +232,7 @@ public class HibernateBootstrapper {
         return new TransactionCleanupInterceptor(isJTADisabled());
     }
 
-    private Map<String, Object> getHibernateSettings(DataSource dataSource) {
+    private Map<String, Object> getHibernateSettings(DataSource dataSource, CaffeineRegionFactory regionFactory) {
         Map<String, Object> settings = new HashMap<>();
         String dialect = hibernateProperties.getDialect();
         if (dialect == null || dialect.isBlank()) {
@@ -218,6 +261,13 @@ public class HibernateBootstrapper {
         if (hibernateProperties.getFetchSize() >= 0L) {
             settings.put(Environment.STATEMENT_FETCH_SIZE, hibernateProperties.getFetchSize());
         }
+        if (hibernateProperties.getJdbcBatchSize() > 0) {
+            settings.put(Environment.STATEMENT_BATCH_SIZE, hibernateProperties.getJdbcBatchSize());
+            settings.put(Environment.ORDER_INSERTS, hibernateProperties.isOrderInserts());
+            settings.put(Environment.ORDER_UPDATES, hibernateProperties.isOrderUpdates());
+            settings.put(Environment.BATCH_VERSIONED_DATA, true);
+        }
+        settings.put(HibernateJPAStorage.MULTI_LOAD_BATCH_SIZE, hibernateProperties.getMultiLoadBatchSize());
         settings.put(Environment.USE_SCROLLABLE_RESULTSET, hibernateProperties.isUseScrollableResultSet());
         settings.put(Environment.NON_CONTEXTUAL_LOB_CREATION, hibernateProperties.isNonContextualLobCreation());
         settings.put(Environment.LOG_JDBC_WARNINGS, hibernateProperties.isLogJdbcWarnings());
@@ -233,6 +283,15 @@ public class HibernateBootstrapper {
         if (hibernateProperties.getStatementInspector() != null && !hibernateProperties.getStatementInspector().isBlank()) {
             settings.put(Environment.STATEMENT_INSPECTOR, hibernateProperties.getStatementInspector());
         }
+        settings.put(Environment.USE_SECOND_LEVEL_CACHE, hibernateProperties.isUseSecondLevelCache());
+        settings.put(Environment.USE_QUERY_CACHE, hibernateProperties.isUseQueryCache());
+        if (hibernateProperties.isUseSecondLevelCache() || hibernateProperties.isUseQueryCache()) {
+            settings.put(Environment.CACHE_REGION_FACTORY, regionFactory);
+            settings.put(CaffeineRegionFactory.DEFAULT_TTL_MILLIS, hibernateProperties.getCacheDefaultTtlMillis());
+            settings.put(CaffeineRegionFactory.DEFAULT_MAX_SIZE, hibernateProperties.getCacheDefaultMaxSize());
+            settings.put(CaffeineRegionFactory.REGIONS, hibernateProperties.getCacheRegions());
+        }
+        settings.put(Environment.GENERATE_STATISTICS, hibernateProperties.isGenerateStatistics());
         settings.put(Environment.POOL_SIZE, jpaProperties.getConnectionPoolSize());
         settings.put(Environment.ISOLATION, jpaProperties.getConnectionIsolation());
         settings.put(Environment.AUTOCOMMIT, jpaProperties.isConnectionAutocommit());
@@ -0,0 +1,51 @@
+package xyz.quartzframework.data.helper;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import org.hibernate.query.sqm.tree.expression.ValueBindJpaCriteriaParameter;
+import org.hibernate.query.sqm.tree.select.SqmSelectStatement;
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Stable identities for criteria queries, so results computed for one specification instance can
+ * be reused for another that builds the same query, such as a lambda created on every call.
+ */
+@UtilityClass
+public class CriteriaHelper {
+
+    private static final Pattern GENERATED_ALIAS = Pattern.compile("alias_-?\\d+");
+
+    /**
+     * Identity of a criteria query: its HQL rendering, with generated aliases numbered in order of
+     * appearance, plus the values bound to its parameters. Queries built the same way with the same
+     * values get equal identities. Returns {@code null} for criteria that Hibernate did not build.
+     */
+    @Nullable
+    public Object identity(CriteriaQuery<?> query) {
+        if (!(query instanceof SqmSelectStatement<?> statement)) return null;
+        val aliases = new HashMap<String, String>();
+        val hql = GENERATED_ALIAS.matcher(statement.toHqlString())
+                .replaceAll(match -> aliases.computeIfAbsent(match.group(), alias -> "a" + aliases.size()));
+        val values = statement.getSqmParameters().stream()
+                .map(parameter -> parameter instanceof ValueBindJpaCriteriaParameter<?> bound
+                        ? describe(bound.getValue())
+                        : parameter.toString())
+                .sorted()
+                .toList();
+        return new Identity(hql, values);
+    }
+
+    private String describe(@Nullable Object value) {
+        return value == null ? "null" : value.getClass().getName() + ":" + Objects.toString(value);
+    }
+
+    private record Identity(String hql, List<String> values) {
+
+    }
+}
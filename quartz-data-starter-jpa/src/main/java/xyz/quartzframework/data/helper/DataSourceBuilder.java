@@ -4,20 +4,115 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.data.properties.HikariProperties;
 import xyz.quartzframework.data.properties.JPAPersistenceProperties;
+import xyz.quartzframework.data.properties.ReplicaProperties;
+import xyz.quartzframework.data.routing.ReplicaBalancing;
+import xyz.quartzframework.data.routing.ReplicaRoutingDataSource;
 
 import javax.sql.DataSource;
 import java.net.URLClassLoader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Slf4j
 public class DataSourceBuilder {
 
     public static DataSource build(JPAPersistenceProperties jpaProps, HikariProperties hikariProps, URLClassLoader classLoader) {
+        return build(jpaProps, hikariProps, null, classLoader);
+    }
+
+    /**
+     * Builds the primary pool, wrapped in a {@link ReplicaRoutingDataSource} when replica URLs are
+     * configured. Replica pools share the primary's Hikari settings and credentials unless
+     * overridden, and hand out read-only connections.
+     */
+    public static DataSource build(JPAPersistenceProperties jpaProps,
+                                   HikariProperties hikariProps,
+                                   @Nullable ReplicaProperties replicaProps,
+                                   URLClassLoader classLoader) {
         if (jpaProps.getDatasourceUrl() == null || jpaProps.getDatasourceUrl().isBlank()) {
             throw new IllegalStateException("Datasource URL must be provided");
         }
-        val config = new HikariConfig();
+        val replicaUrls = replicaProps == null ? List.<String>of() : replicaUrls(replicaProps);
+        // parsed before any pool is opened, so a bad value cannot leak them
+        val balancing = replicaUrls.isEmpty() ? null : balancing(replicaProps);
+        val driver = resolveDriver(jpaProps, classLoader);
+        val config = config(jpaProps, hikariProps, driver);
+        config.setJdbcUrl(jpaProps.getDatasourceUrl());
+        config.setUsername(jpaProps.getDatasourceUsername());
+        config.setPassword(jpaProps.getDatasourcePassword());
+        log.info("Configured HikariCP: url={}, user={}, driver={}", jpaProps.getDatasourceUrl(), jpaProps.getDatasourceUsername(), driver);
+        val primary = new HikariDataSource(config);
+        if (balancing == null) {
+            return primary;
+        }
+        val replicas = new ArrayList<HikariDataSource>(replicaUrls.size());
+        try {
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                replicas.add(new HikariDataSource(replicaConfig(jpaProps, hikariProps, replicaProps, driver, replicaUrls.get(i), i)));
+            }
+            log.info("Routing reads to {} replicas ({}), max lag {}ms", replicas.size(), balancing, replicaProps.getMaxLagMillis());
+            return new ReplicaRoutingDataSource(
+                    primary,
+                    replicas,
+                    balancing,
+                    replicaProps.isRouteNonTransactionalReads(),
+                    Duration.ofMillis(replicaProps.getMaxLagMillis()),
+                    Duration.ofMillis(replicaProps.getLagCheckIntervalMillis()),
+                    replicaProps.getLagQuery());
+        } catch (RuntimeException e) {
+            replicas.forEach(HikariDataSource::close);
+            primary.close();
+            throw e;
+        }
+    }
+
+    private static ReplicaBalancing balancing(ReplicaProperties replicaProps) {
+        val balancing = replicaProps.getBalancing();
+        val name = balancing.trim().replace('-', '_').toUpperCase();
+        return Arrays.stream(ReplicaBalancing.values())
+                .filter(value -> value.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown replica balancing '" + balancing
+                        + "', expected one of " + Arrays.toString(ReplicaBalancing.values())));
+    }
+
+    private static List<String> replicaUrls(ReplicaProperties replicaProps) {
+        val urls = replicaProps.getUrls();
+        if (urls == null || urls.isBlank()) return List.of();
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    private static HikariConfig replicaConfig(JPAPersistenceProperties jpaProps,
+                                              HikariProperties hikariProps,
+                                              ReplicaProperties replicaProps,
+                                              String driver,
+                                              String url,
+                                              int index) {
+        val config = config(jpaProps, hikariProps, driver);
+        val username = replicaProps.getUsername();
+        val password = replicaProps.getPassword();
+        val overridden = username != null && !username.isBlank();
+        config.setJdbcUrl(url);
+        config.setUsername(overridden ? username : jpaProps.getDatasourceUsername());
+        config.setPassword(overridden ? password : jpaProps.getDatasourcePassword());
+        config.setReadOnly(true);
+        if (replicaProps.getPoolSize() > 0) config.setMaximumPoolSize(replicaProps.getPoolSize());
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+        val poolName = hikariProps.getPoolName();
+        config.setPoolName((poolName == null || poolName.isBlank() ? "quartz" : poolName) + "-replica-" + (index + 1));
+        log.info("Configured HikariCP replica: url={}, user={}", url, config.getUsername());
+        return config;
+    }
+
+    private static String resolveDriver(JPAPersistenceProperties jpaProps, URLClassLoader classLoader) {
         String driver = jpaProps.getDatasourceDriver();
         if (driver == null || driver.isBlank()) {
             driver = AutoDialectHelper.resolveDriver(classLoader);
@@ -34,9 +129,11 @@ public class DataSourceBuilder {
         } catch (ClassNotFoundException e) {
             throw new IllegalStateException("Could not load JDBC driver: " + driver, e);
         }
-        config.setJdbcUrl(jpaProps.getDatasourceUrl());
-        config.setUsername(jpaProps.getDatasourceUsername());
-        config.setPassword(jpaProps.getDatasourcePassword());
+        return driver;
+    }
+
+    private static HikariConfig config(JPAPersistenceProperties jpaProps, HikariProperties hikariProps, String driver) {
+        val config = new HikariConfig();
         config.setDriverClassName(driver);
         config.setMaximumPoolSize(jpaProps.getConnectionPoolSize());
         config.setAutoCommit(jpaProps.isConnectionAutocommit());
@@ -68,7 +165,6 @@ public class DataSourceBuilder {
 
         if (!hikariProps.getHikariSchema().isBlank())
             config.setSchema(hikariProps.getHikariSchema());
-        log.info("Configured HikariCP: url={}, user={}, driver={}", jpaProps.getDatasourceUrl(), jpaProps.getDatasourceUsername(), driver);
-        return new HikariDataSource(config);
+        return config;
     }
 }
@@ -0,0 +1,68 @@
+package xyz.quartzframework.data.helper;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import org.hibernate.Hibernate;
+import org.springframework.beans.DirectFieldAccessor;
+import xyz.quartzframework.data.page.Cursor;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared pieces of keyset pagination: the seek keys of a sort (its orders followed by the entity
+ * id as a tie-breaker) and turning a {@code size + 1} result list into a {@link Slice}.
+ * <p>
+ * Seek keys must be non-null and the sort should be backed by an index for seeks to stay cheap.
+ */
+@UtilityClass
+public class KeysetHelper {
+
+    public String idAttribute(EntityManagerFactory entityManagerFactory, Class<?> entityClass) {
+        val entityType = entityManagerFactory.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new UnsupportedOperationException("A single id attribute is required: " + entityClass.getName());
+        }
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    public List<Key> keys(Sort sort, String idAttribute) {
+        return keys(sort.getOrders().stream()
+                .map(order -> new Key(order.property(), order.direction() == Sort.Direction.DESC))
+                .toList(), idAttribute);
+    }
+
+    public List<Key> keys(List<Key> orders, String idAttribute) {
+        val keys = new ArrayList<>(orders);
+        if (keys.stream().noneMatch(key -> key.property().equals(idAttribute))) {
+            keys.add(new Key(idAttribute, false));
+        }
+        return List.copyOf(keys);
+    }
+
+    public List<String> signature(List<Key> keys) {
+        return keys.stream()
+                .map(key -> key.property() + (key.descending() ? " desc" : " asc"))
+                .toList();
+    }
+
+    public <T> Slice<T> slice(List<T> rows, int size, List<Key> keys) {
+        if (rows.size() <= size) {
+            return Slice.of(rows, size, null);
+        }
+        val content = List.copyOf(rows.subList(0, size));
+        val last = new DirectFieldAccessor(Hibernate.unproxy(content.get(size - 1)));
+        val values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = last.getPropertyValue(keys.get(i).property());
+        }
+        return Slice.of(content, size, Cursor.after(signature(keys), values));
+    }
+
+    public record Key(String property, boolean descending) {
+
+    }
+}
@@ -0,0 +1,36 @@
+package xyz.quartzframework.data.helper;
+
+import lombok.experimental.UtilityClass;
+import xyz.quartzframework.data.page.CountMode;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+
+import java.util.List;
+
+/**
+ * Offset paging without a count: queries fetch one row past the page size, and the extra row
+ * only tells whether a next page exists.
+ */
+@UtilityClass
+public class PagingHelper {
+
+    public int fetchSize(Pagination pagination, CountMode countMode) {
+        return countMode == CountMode.NONE ? pagination.size() + 1 : pagination.size();
+    }
+
+    public <T> List<T> content(List<T> rows, int size) {
+        return rows.size() > size ? List.copyOf(rows.subList(0, size)) : rows;
+    }
+
+    public <T> Slice<T> slice(List<T> rows, int size) {
+        return Slice.of(content(rows, size), size, rows.size() > size);
+    }
+
+    /**
+     * Total reported by {@link CountMode#NONE} pages: the rows up to and including this page,
+     * plus one when a next page exists.
+     */
+    public long lowerBoundTotal(Pagination pagination, int fetched) {
+        return (long) pagination.offset() + Math.min(fetched, pagination.size()) + (fetched > pagination.size() ? 1 : 0);
+    }
+}
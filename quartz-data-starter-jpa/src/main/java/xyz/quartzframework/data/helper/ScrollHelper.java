@@ -0,0 +1,115 @@
+package xyz.quartzframework.data.helper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.query.Query;
+import xyz.quartzframework.data.manager.EntityManagerCallback;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.routing.RoutingContext;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams query results through a forward-only {@link ScrollableResults} instead of loading
+ * them into a list.
+ * <p>
+ * Outside a transaction the stream gets its own EntityManager, read-only transaction and
+ * connection, clears the persistence context every fetch-size rows so memory stays bounded, and
+ * releases all of them when the stream is closed; that connection is routed as a non-transactional
+ * read. Inside a transaction the stream runs on the transaction's EntityManager and leaves its
+ * persistence context alone. Streams must be closed, e.g. with try-with-resources.
+ */
+@UtilityClass
+public class ScrollHelper {
+
+    private static final int DEFAULT_FETCH_SIZE = 100;
+
+    public int fetchSize(EntityManagerFactory entityManagerFactory) {
+        val configured = entityManagerFactory.getProperties().get(AvailableSettings.STATEMENT_FETCH_SIZE);
+        val fetchSize = configured == null ? 0 : Integer.parseInt(configured.toString());
+        return fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(EntityManagerFactory entityManagerFactory, EntityManagerCallback<jakarta.persistence.Query> queryFactory) {
+        val bound = EntityManagerContext.get();
+        val owned = bound == null || !bound.isOpen();
+        val em = owned ? EntityManagerContext.open(entityManagerFactory) : bound;
+        val previousRoute = owned ? RoutingContext.set(RoutingContext.Route.NON_TRANSACTIONAL_READ) : null;
+        try {
+            if (owned) {
+                EntityManagerContext.readOnly(em);
+                em.getTransaction().begin();
+            }
+            val fetchSize = fetchSize(entityManagerFactory);
+            val query = (Query<T>) queryFactory.call(em).unwrap(Query.class);
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            val results = query.scroll(ScrollMode.FORWARD_ONLY);
+            val spliterator = new ScrollSpliterator<T>(results, em, owned ? fetchSize : 0);
+            return StreamSupport.stream(spliterator, false).onClose(() -> close(results, em, owned));
+        } catch (RuntimeException e) {
+            if (owned) release(em);
+            throw e;
+        } finally {
+            if (owned) RoutingContext.restore(previousRoute);
+        }
+    }
+
+    private void close(ScrollableResults<?> results, EntityManager em, boolean owned) {
+        try {
+            results.close();
+        } finally {
+            if (owned) release(em);
+        }
+    }
+
+    private void release(EntityManager em) {
+        try {
+            val tx = em.getTransaction();
+            if (tx.isActive()) tx.rollback();
+        } finally {
+            EntityManagerContext.close(em);
+        }
+    }
+
+    private static final class ScrollSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ScrollableResults<T> results;
+
+        private final EntityManager em;
+
+        private final int clearEvery;
+
+        private long position;
+
+        ScrollSpliterator(ScrollableResults<T> results, EntityManager em, int clearEvery) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.results = results;
+            this.em = em;
+            this.clearEvery = clearEvery;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (clearEvery > 0 && position > 0 && position % clearEvery == 0) {
+                em.clear();
+            }
+            if (!results.next()) {
+                return false;
+            }
+            position++;
+            action.accept(results.get());
+            return true;
+        }
+    }
+}
@@ -6,6 +6,11 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.lang.NonNull;
 import xyz.quartzframework.data.manager.EntityManagerContext;
 
+/**
+ * Unbinds an EntityManager left in {@link EntityManagerContext} after a storage call. An
+ * EntityManager with an active transaction belongs to the caller's transaction and is left for the
+ * transaction manager to close.
+ */
 public class TransactionCleanupInterceptor implements MethodInterceptor {
 
     private final boolean disabled;
@@ -21,10 +26,12 @@ public class TransactionCleanupInterceptor implements MethodInterceptor {
             return invocation.proceed();
         } finally {
             EntityManager em = EntityManagerContext.get();
-            if (em != null && em.isOpen()) {
-                em.close();
+            if (em == null || !em.isOpen() || !em.getTransaction().isActive()) {
+                if (em != null) {
+                    EntityManagerContext.close(em);
+                }
+                EntityManagerContext.clear();
             }
-            EntityManagerContext.clear();
         }
     }
 }
\ No newline at end of file
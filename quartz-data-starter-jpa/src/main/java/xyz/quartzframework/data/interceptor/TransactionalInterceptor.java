@@ -37,10 +37,9 @@ public class TransactionalInterceptor implements MethodInterceptor {
         def.setTimeout(transactional.timeout());
         def.setReadOnly(transactional.readOnly());
         TransactionStatus status = txManager.getTransaction(def);
+        Object result;
         try {
-            Object result = invocation.proceed();
-            txManager.commit(status);
-            return result;
+            result = invocation.proceed();
         } catch (Throwable ex) {
             if (shouldRollbackFor(transactional, ex)) {
                 txManager.rollback(status);
@@ -49,6 +48,8 @@ public class TransactionalInterceptor implements MethodInterceptor {
             }
             throw ex;
         }
+        txManager.commit(status);
+        return result;
     }
 
     private Transactional resolveTransactionalAnnotation(Method method, Object target) {
@@ -3,12 +3,47 @@ package xyz.quartzframework.data.manager;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.hibernate.Session;
 import org.springframework.lang.Nullable;
-import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.*;
 import org.springframework.transaction.support.DefaultTransactionStatus;
+import xyz.quartzframework.data.routing.RoutingContext;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Resource-local transactions on the EntityManager bound to {@link EntityManagerContext}.
+ * <p>
+ * A new transaction opens an EntityManager, binds it for its duration and closes it on completion,
+ * rebinding whatever was bound before. Participating transactions reuse the bound EntityManager, so
+ * a logical transaction holds a single connection however deeply {@code @Transactional} calls
+ * nest. Propagation follows Spring's semantics:
+ * <ul>
+ *     <li>{@code REQUIRED} joins the current transaction or starts one</li>
+ *     <li>{@code SUPPORTS} joins the current transaction or runs without one</li>
+ *     <li>{@code MANDATORY} joins the current transaction or fails</li>
+ *     <li>{@code REQUIRES_NEW} suspends the current transaction and starts one</li>
+ *     <li>{@code NOT_SUPPORTED} suspends the current transaction and runs without one</li>
+ *     <li>{@code NEVER} fails when a transaction is active</li>
+ *     <li>{@code NESTED} sets a JDBC savepoint in the current transaction, or starts one</li>
+ * </ul>
+ * A participant rolling back marks the whole transaction rollback-only; committing it then rolls
+ * back and throws {@link UnexpectedRollbackException}.
+ * <p>
+ * {@code NESTED} only helps with work rolled back on purpose. Hibernate marks the resource-local
+ * transaction rollback-only on any {@code PersistenceException}, so after a nested transaction
+ * fails on a database error the outer commit still throws {@link UnexpectedRollbackException}.
+ * Rolling back to a savepoint also clears the persistence context, since entities changed after
+ * the savepoint no longer match the database; that detaches every entity the outer transaction
+ * loaded too, and changes made to them afterwards are no longer flushed.
+ * <p>
+ * New read-only transactions run on a read-only session with manual flushing, and their
+ * connection is routed to a read replica when the DataSource is a
+ * {@link xyz.quartzframework.data.routing.ReplicaRoutingDataSource}.
+ */
 @RequiredArgsConstructor
 public class DefaultJPATransactionManager implements PlatformTransactionManager {
 
@@ -16,30 +51,200 @@ public class DefaultJPATransactionManager implements PlatformTransactionManager
 
     @Override
     public TransactionStatus getTransaction(@Nullable TransactionDefinition definition) {
-        EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
+        val def = definition != null ? definition : TransactionDefinition.withDefaults();
+        val current = current();
+        if (current != null) {
+            return handleExisting(def, current);
+        }
+        return switch (def.getPropagationBehavior()) {
+            case TransactionDefinition.PROPAGATION_MANDATORY ->
+                    throw new IllegalTransactionStateException("No existing transaction found for transaction marked with propagation 'mandatory'");
+            case TransactionDefinition.PROPAGATION_REQUIRED,
+                 TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+                 TransactionDefinition.PROPAGATION_NESTED -> begin(def, suspend());
+            default -> status(def, null, false, false, suspend());
+        };
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+        val txStatus = (DefaultTransactionStatus) status;
+        if (txStatus.isCompleted()) {
+            throw new IllegalTransactionStateException("Transaction is already completed");
+        }
+        if (txStatus.isLocalRollbackOnly()) {
+            rollback(status);
+            return;
+        }
+        try {
+            val transaction = transaction(txStatus);
+            if (transaction == null) return;
+            if (transaction.savepoint() != null) {
+                releaseSavepoint(transaction.em(), transaction.savepoint());
+            } else if (txStatus.isNewTransaction()) {
+                val tx = transaction.em().getTransaction();
+                if (tx.getRollbackOnly()) {
+                    tx.rollback();
+                    throw new UnexpectedRollbackException("Transaction rolled back because it has been marked as rollback-only");
+                }
+                tx.commit();
+            }
+        } finally {
+            complete(txStatus);
+        }
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+        val txStatus = (DefaultTransactionStatus) status;
+        if (txStatus.isCompleted()) {
+            throw new IllegalTransactionStateException("Transaction is already completed");
+        }
+        try {
+            val transaction = transaction(txStatus);
+            if (transaction == null) return;
+            val em = transaction.em();
+            if (transaction.savepoint() != null) {
+                rollbackToSavepoint(em, transaction.savepoint());
+            } else if (txStatus.isNewTransaction()) {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            } else if (em.getTransaction().isActive()) {
+                em.getTransaction().setRollbackOnly();
+            }
+        } finally {
+            complete(txStatus);
+        }
+    }
+
+    private TransactionStatus handleExisting(TransactionDefinition def, EntityManager current) {
+        return switch (def.getPropagationBehavior()) {
+            case TransactionDefinition.PROPAGATION_NEVER ->
+                    throw new IllegalTransactionStateException("Existing transaction found for transaction marked with propagation 'never'");
+            case TransactionDefinition.PROPAGATION_NOT_SUPPORTED -> status(def, null, false, false, suspend());
+            case TransactionDefinition.PROPAGATION_REQUIRES_NEW -> begin(def, suspend());
+            case TransactionDefinition.PROPAGATION_NESTED ->
+                    status(def, new JPATransaction(current, createSavepoint(current), null), false, true, null);
+            default -> status(def, new JPATransaction(current, null, null), false, false, null);
+        };
+    }
+
+    /**
+     * Starts a transaction on a new EntityManager. A read-only transaction gets a read-only session
+     * with manual flushing and is routed to a replica until it completes; any other is routed to
+     * the primary.
+     */
+    private DefaultTransactionStatus begin(TransactionDefinition def, @Nullable EntityManager suspended) {
+        val em = EntityManagerContext.open(emf);
+        val previousRoute = RoutingContext.set(def.isReadOnly()
+                ? RoutingContext.Route.READ_ONLY_TRANSACTION
+                : RoutingContext.Route.PRIMARY);
+        try {
+            if (def.isReadOnly()) EntityManagerContext.readOnly(em);
+            em.getTransaction().begin();
+        } catch (RuntimeException e) {
+            RoutingContext.restore(previousRoute);
+            EntityManagerContext.close(em);
+            resume(suspended);
+            throw new CannotCreateTransactionException("Could not open JPA transaction", e);
+        }
         EntityManagerContext.set(em);
+        return status(def, new JPATransaction(em, null, previousRoute), true, false, suspended);
+    }
+
+    private static DefaultTransactionStatus status(TransactionDefinition def,
+                                                   @Nullable JPATransaction transaction,
+                                                   boolean newTransaction,
+                                                   boolean nested,
+                                                   @Nullable EntityManager suspended) {
         return new DefaultTransactionStatus(
-                null,
-                em,
-                true,
-                true,
+                def.getName(),
+                transaction,
+                newTransaction,
                 false,
-                definition != null && definition.isReadOnly(),
+                nested,
+                def.isReadOnly(),
                 false,
-                null
+                suspended
         );
     }
 
-    @Override
-    public void commit(TransactionStatus status) {
-        EntityManager em = (EntityManager) ((DefaultTransactionStatus) status).getTransaction();
-        em.getTransaction().commit();
+    /**
+     * Closes the EntityManager of a new transaction, restores the route it replaced and rebinds the
+     * suspended EntityManager, if any.
+     */
+    private void complete(DefaultTransactionStatus status) {
+        status.setCompleted();
+        val transaction = transaction(status);
+        if (transaction != null && status.isNewTransaction()) {
+            EntityManagerContext.close(transaction.em());
+            EntityManagerContext.clear();
+            RoutingContext.restore(transaction.previousRoute());
+        }
+        resume((EntityManager) status.getSuspendedResources());
     }
 
-    @Override
-    public void rollback(TransactionStatus status) {
-        EntityManager em = (EntityManager) ((DefaultTransactionStatus) status).getTransaction();
-        em.getTransaction().rollback();
+    @Nullable
+    private static JPATransaction transaction(DefaultTransactionStatus status) {
+        return status.hasTransaction() ? (JPATransaction) status.getTransaction() : null;
+    }
+
+    /**
+     * Unbinds the current EntityManager, if any, to be rebound once the transaction completes.
+     */
+    @Nullable
+    private static EntityManager suspend() {
+        val em = EntityManagerContext.get();
+        EntityManagerContext.clear();
+        return em;
+    }
+
+    private static void resume(@Nullable EntityManager em) {
+        if (em != null) EntityManagerContext.set(em);
+    }
+
+    /**
+     * The bound EntityManager when it has an active transaction.
+     */
+    @Nullable
+    private static EntityManager current() {
+        val em = EntityManagerContext.get();
+        return em != null && em.isOpen() && em.getTransaction().isActive() ? em : null;
+    }
+
+    private static Savepoint createSavepoint(EntityManager em) {
+        em.flush();
+        try {
+            return em.unwrap(Session.class).doReturningWork(Connection::setSavepoint);
+        } catch (RuntimeException e) {
+            throw new NestedTransactionNotSupportedException("Could not create JDBC savepoint: " + e.getMessage());
+        }
+    }
+
+    private static void rollbackToSavepoint(EntityManager em, Savepoint savepoint) {
+        em.clear();
+        try {
+            em.unwrap(Session.class).doWork(connection -> connection.rollback(savepoint));
+        } catch (RuntimeException e) {
+            throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+        }
+    }
+
+    private static void releaseSavepoint(EntityManager em, Savepoint savepoint) {
+        em.unwrap(Session.class).doWork(connection -> {
+            try {
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException ignored) {
+                // not every driver supports releasing savepoints; they go away with the transaction
+            }
+        });
+    }
+
+    /**
+     * Transaction object of a status: the EntityManager it runs on, the savepoint of a nested
+     * transaction, and the route a new transaction replaced.
+     */
+    private record JPATransaction(EntityManager em,
+                                  @Nullable Savepoint savepoint,
+                                  @Nullable RoutingContext.Route previousRoute) {
     }
-}
\ No newline at end of file
+}
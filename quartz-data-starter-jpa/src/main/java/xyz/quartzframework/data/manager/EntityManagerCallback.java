@@ -0,0 +1,10 @@
+package xyz.quartzframework.data.manager;
+
+import jakarta.persistence.EntityManager;
+
+@FunctionalInterface
+public interface EntityManagerCallback<T> {
+
+    T call(EntityManager em);
+
+}
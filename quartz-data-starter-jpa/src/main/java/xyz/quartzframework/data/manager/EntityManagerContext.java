@@ -1,12 +1,37 @@
 package xyz.quartzframework.data.manager;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Synchronization;
+import lombok.val;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.routing.RoutingContext;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound {@link EntityManager} shared by storages, query executors and the transaction
+ * manager.
+ * <p>
+ * {@link #execute} and {@link #executeInTransaction} run on the bound EntityManager when there is
+ * one, so work inside a transaction sees its uncommitted writes and uses a single connection.
+ * Otherwise they open a short-lived EntityManager for the callback. EntityManagers opened here are
+ * counted, since each one holds at most one pooled connection.
+ */
 public class EntityManagerContext {
 
     private static final ThreadLocal<EntityManager> context = new ThreadLocal<>();
 
+    private static final AtomicLong openedCount = new AtomicLong();
+
+    private static final AtomicInteger openCount = new AtomicInteger();
+
+    private static final AtomicInteger peakOpenCount = new AtomicInteger();
+
     public static void set(EntityManager em) {
         context.set(em);
     }
@@ -19,4 +44,141 @@ public class EntityManagerContext {
     public static void clear() {
         context.remove();
     }
-}
\ No newline at end of file
+
+    public static EntityManager open(EntityManagerFactory entityManagerFactory) {
+        val em = entityManagerFactory.createEntityManager();
+        openedCount.incrementAndGet();
+        peakOpenCount.accumulateAndGet(openCount.incrementAndGet(), Math::max);
+        return em;
+    }
+
+    public static void close(EntityManager em) {
+        if (em.isOpen()) {
+            em.close();
+            openCount.decrementAndGet();
+        }
+    }
+
+    public static EntityManager resolve(EntityManagerFactory entityManagerFactory) {
+        val em = get();
+        if (em != null && em.isOpen()) {
+            return em;
+        }
+        return open(entityManagerFactory);
+    }
+
+    /**
+     * Runs a read. On an EntityManager opened for the callback the session is read-only and never
+     * flushes, and its connection is routed as a non-transactional read unless the caller set a
+     * route.
+     */
+    public static <T> T execute(EntityManagerFactory entityManagerFactory, EntityManagerCallback<T> callback) {
+        val bound = get();
+        if (bound != null && bound.isOpen()) {
+            return callback.call(bound);
+        }
+        val em = open(entityManagerFactory);
+        try {
+            readOnly(em);
+            if (RoutingContext.get() != null) return callback.call(em);
+            return RoutingContext.call(RoutingContext.Route.NON_TRANSACTIONAL_READ, () -> callback.call(em));
+        } finally {
+            close(em);
+        }
+    }
+
+    public static <T> T executeInTransaction(EntityManagerFactory entityManagerFactory, EntityManagerCallback<T> callback) {
+        val em = resolve(entityManagerFactory);
+        val tx = em.getTransaction();
+        boolean newTransaction = !tx.isActive();
+        val previousRoute = newTransaction ? RoutingContext.set(RoutingContext.Route.PRIMARY) : null;
+        try {
+            if (newTransaction) tx.begin();
+            T result = callback.call(em);
+            if (newTransaction) tx.commit();
+            return result;
+        } catch (Exception e) {
+            if (newTransaction && tx.isActive()) tx.rollback();
+            throw new RuntimeException(e);
+        } finally {
+            if (newTransaction) RoutingContext.restore(previousRoute);
+            if (get() != em) close(em);
+        }
+    }
+
+    /**
+     * Whether the bound EntityManager has an active transaction.
+     */
+    public static boolean inTransaction() {
+        val em = get();
+        return em != null && em.isOpen() && em.getTransaction().isActive();
+    }
+
+    /**
+     * Runs the callback once the transaction of the bound EntityManager commits or rolls back, or
+     * right away when there is none.
+     */
+    public static void afterCompletion(Runnable callback) {
+        if (!inTransaction()) {
+            callback.run();
+            return;
+        }
+        get().unwrap(Session.class).getTransaction().registerSynchronization(new Synchronization() {
+
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                callback.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the action with no EntityManager bound, so the storage calls it makes open their own and
+     * commit independently of the caller's transaction. The bound EntityManager is rebound after.
+     */
+    public static <T> T suspend(Supplier<T> action) {
+        val suspended = get();
+        clear();
+        try {
+            return action.get();
+        } finally {
+            if (suspended != null) set(suspended);
+        }
+    }
+
+    /**
+     * Loads entities read-only, so Hibernate keeps no snapshots for dirty checking, and switches
+     * flushing to manual.
+     */
+    public static void readOnly(EntityManager em) {
+        val session = em.unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+
+    /**
+     * Total EntityManagers opened through this context.
+     */
+    public static long getOpenedCount() {
+        return openedCount.get();
+    }
+
+    /**
+     * EntityManagers currently open, an upper bound on the pooled connections held by JPA work.
+     */
+    public static int getOpenCount() {
+        return openCount.get();
+    }
+
+    public static int getPeakOpenCount() {
+        return peakOpenCount.get();
+    }
+
+    public static void resetPeakOpenCount() {
+        peakOpenCount.set(openCount.get());
+    }
+}
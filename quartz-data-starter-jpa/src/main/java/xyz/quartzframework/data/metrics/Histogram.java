@@ -0,0 +1,79 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values in power-of-two buckets ({@code 0}, {@code 1},
+ * {@code 2-3}, {@code 4-7}, ...).
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        val n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Non-empty buckets in ascending order, keyed by their value range.
+     */
+    public Map<String, Long> snapshot() {
+        val snapshot = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < BUCKETS; i++) {
+            val n = buckets.get(i);
+            if (n == 0) continue;
+            snapshot.put(label(i), n);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{count=" + getCount() + ", mean=" + getMean() + ", max=" + getMax() + ", buckets=" + snapshot() + "}";
+    }
+
+    private static int bucket(long value) {
+        return value == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    private static String label(int bucket) {
+        if (bucket <= 1) return String.valueOf(bucket);
+        val low = 1L << (bucket - 1);
+        return bucket == BUCKETS - 1 ? low + "+" : low + "-" + ((low << 1) - 1);
+    }
+}
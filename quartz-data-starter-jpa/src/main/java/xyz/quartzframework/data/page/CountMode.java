@@ -0,0 +1,24 @@
+package xyz.quartzframework.data.page;
+
+/**
+ * How the total of a paged query is obtained.
+ */
+public enum CountMode {
+
+    /**
+     * Runs a count query for every page.
+     */
+    EXACT,
+
+    /**
+     * Reuses a count computed within the configured staleness window.
+     */
+    CACHED,
+
+    /**
+     * Skips the count. The page fetches one extra row and reports a lower-bound total: the rows
+     * up to this page, plus one if there is a next page.
+     */
+    NONE
+
+}
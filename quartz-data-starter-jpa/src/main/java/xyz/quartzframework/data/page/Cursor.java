@@ -0,0 +1,251 @@
+package xyz.quartzframework.data.page;
+
+import lombok.val;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ * <p>
+ * A cursor holds the sort key values of the last row of a {@link Slice} together with the sort it
+ * was created for, and the next slice seeks past those values instead of skipping rows with an
+ * offset. Use {@link #first()} for the first slice and {@link #getToken()} / {@link #of(String)}
+ * to hand the position to a client and back.
+ * <p>
+ * Tokens use a small tagged binary format rather than Java serialization, so decoding a token
+ * from a client never instantiates anything but strings, numbers, booleans, characters, UUIDs,
+ * dates and times, and constants of enums already present on the classpath. Values only ever
+ * become bound parameters of the query resuming from the cursor, so a modified token can move the
+ * position but not widen what the query matches.
+ */
+public final class Cursor {
+
+    private static final Cursor FIRST = new Cursor(List.of(), new Object[0]);
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_KEYS = 64;
+
+    private static final byte NULL = 0, STRING = 1, LONG = 2, INTEGER = 3, SHORT = 4, BYTE = 5, DOUBLE = 6,
+            FLOAT = 7, BIG_DECIMAL = 8, BIG_INTEGER = 9, BOOLEAN = 10, CHARACTER = 11, UUID_VALUE = 12,
+            INSTANT = 13, LOCAL_DATE = 14, LOCAL_TIME = 15, LOCAL_DATE_TIME = 16, OFFSET_DATE_TIME = 17,
+            ZONED_DATE_TIME = 18, DATE = 19, SQL_DATE = 20, TIMESTAMP = 21, ENUM = 22;
+
+    private final List<String> keys;
+
+    private final Object[] values;
+
+    private Cursor(List<String> keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public static Cursor first() {
+        return FIRST;
+    }
+
+    public static Cursor after(List<String> keys, Object[] values) {
+        if (keys.size() != values.length) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " cursor values, got " + values.length);
+        }
+        return new Cursor(List.copyOf(keys), values.clone());
+    }
+
+    public static Cursor of(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try (val in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            val size = in.readUnsignedByte();
+            if (size == 0 || size > MAX_KEYS) {
+                throw new IllegalArgumentException("Invalid cursor size: " + size);
+            }
+            val keys = new String[size];
+            val values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = in.readUTF();
+                values[i] = readValue(in);
+            }
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("Trailing bytes in cursor token");
+            }
+            return after(List.of(keys), values);
+        } catch (IOException | DateTimeException | ArithmeticException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor token", e);
+        }
+    }
+
+    public boolean isFirst() {
+        return keys.isEmpty();
+    }
+
+    public String getToken() {
+        if (isFirst()) {
+            return "";
+        }
+        val bytes = new ByteArrayOutputStream();
+        try (val out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                out.writeUTF(keys.get(i));
+                writeValue(out, values[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor " + this, e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Values of this cursor, checked against the sort keys of the query resuming from it.
+     */
+    public Object[] values(List<String> expectedKeys) {
+        if (!keys.equals(expectedKeys)) {
+            throw new IllegalArgumentException("Cursor was created for sort " + keys + ", not " + expectedKeys);
+        }
+        return values.clone();
+    }
+
+    @Override
+    public String toString() {
+        return isFirst() ? "Cursor[first]" : "Cursor" + keys + Arrays.toString(values);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            out.writeUTF(string);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INTEGER);
+            out.writeInt(number);
+        } else if (value instanceof Short number) {
+            out.writeByte(SHORT);
+            out.writeShort(number);
+        } else if (value instanceof Byte number) {
+            out.writeByte(BYTE);
+            out.writeByte(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte(FLOAT);
+            out.writeFloat(number);
+        } else if (value instanceof BigDecimal number) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeUTF(number.toString());
+        } else if (value instanceof BigInteger number) {
+            out.writeByte(BIG_INTEGER);
+            out.writeUTF(number.toString());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Character character) {
+            out.writeByte(CHARACTER);
+            out.writeChar(character);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(UUID_VALUE);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Instant instant) {
+            out.writeByte(INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof LocalDate || value instanceof LocalTime || value instanceof LocalDateTime
+                || value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+            out.writeByte(temporalTag(value));
+            out.writeUTF(value.toString());
+        } else if (value instanceof java.sql.Timestamp timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(date.getTime());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Enum<?> constant) {
+            out.writeByte(ENUM);
+            out.writeUTF(constant.getDeclaringClass().getName());
+            out.writeUTF(constant.name());
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor value type " + value.getClass().getName() + ": " + value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        val tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> in.readUTF();
+            case LONG -> in.readLong();
+            case INTEGER -> in.readInt();
+            case SHORT -> in.readShort();
+            case BYTE -> in.readByte();
+            case DOUBLE -> in.readDouble();
+            case FLOAT -> in.readFloat();
+            case BIG_DECIMAL -> new BigDecimal(in.readUTF());
+            case BIG_INTEGER -> new BigInteger(in.readUTF());
+            case BOOLEAN -> in.readBoolean();
+            case CHARACTER -> in.readChar();
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case LOCAL_DATE -> LocalDate.parse(in.readUTF());
+            case LOCAL_TIME -> LocalTime.parse(in.readUTF());
+            case LOCAL_DATE_TIME -> LocalDateTime.parse(in.readUTF());
+            case OFFSET_DATE_TIME -> OffsetDateTime.parse(in.readUTF());
+            case ZONED_DATE_TIME -> ZonedDateTime.parse(in.readUTF());
+            case DATE -> new Date(in.readLong());
+            case SQL_DATE -> new java.sql.Date(in.readLong());
+            case TIMESTAMP -> {
+                val timestamp = new java.sql.Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                yield timestamp;
+            }
+            case ENUM -> enumConstant(in.readUTF(), in.readUTF());
+            default -> throw new IllegalArgumentException("Unknown cursor value tag: " + tag);
+        };
+    }
+
+    private static byte temporalTag(Object value) {
+        if (value instanceof LocalDate) return LOCAL_DATE;
+        if (value instanceof LocalTime) return LOCAL_TIME;
+        if (value instanceof LocalDateTime) return LOCAL_DATE_TIME;
+        if (value instanceof OffsetDateTime) return OFFSET_DATE_TIME;
+        return ZONED_DATE_TIME;
+    }
+
+    /**
+     * Resolves an enum constant without initializing anything but the enum itself; names of other
+     * classes are rejected before they are initialized.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumConstant(String typeName, String name) {
+        try {
+            val type = Class.forName(typeName, false, Cursor.class.getClassLoader());
+            if (!type.isEnum()) {
+                throw new IllegalArgumentException("Not an enum type: " + typeName);
+            }
+            return Enum.valueOf((Class) type, name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown enum type: " + typeName, e);
+        }
+    }
+}
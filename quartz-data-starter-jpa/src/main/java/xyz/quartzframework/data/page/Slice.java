@@ -0,0 +1,48 @@
+package xyz.quartzframework.data.page;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * A page of results without a total count. {@link #hasNext()} is computed by fetching one row past
+ * the requested size; keyset slices also carry the {@link Cursor} to resume from.
+ */
+public class Slice<T> {
+
+    @Getter
+    private final List<T> content;
+
+    @Getter
+    private final int size;
+
+    private final boolean hasNext;
+
+    @Getter
+    @Nullable
+    private final Cursor nextCursor;
+
+    private Slice(List<T> content, int size, boolean hasNext, @Nullable Cursor nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> Slice<T> of(List<T> content, int size, boolean hasNext) {
+        return new Slice<>(content, size, hasNext, null);
+    }
+
+    public static <T> Slice<T> of(List<T> content, int size, @Nullable Cursor nextCursor) {
+        return new Slice<>(content, size, nextCursor != null, nextCursor);
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
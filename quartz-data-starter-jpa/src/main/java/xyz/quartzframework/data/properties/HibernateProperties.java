@@ -32,6 +32,18 @@ public class HibernateProperties {
     @Property("${quartz.data.hibernate.fetch-size:0}")
     private int fetchSize;
 
+    @Property("${quartz.data.hibernate.jdbc.batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Property("${quartz.data.hibernate.multi-load.batch-size:500}")
+    private int multiLoadBatchSize;
+
+    @Property("${quartz.data.hibernate.order-inserts:true}")
+    private boolean orderInserts;
+
+    @Property("${quartz.data.hibernate.order-updates:true}")
+    private boolean orderUpdates;
+
     @Property("${quartz.data.hibernate.use-scrollable-resultset:true}")
     private boolean useScrollableResultSet;
 
@@ -59,6 +71,24 @@ public class HibernateProperties {
     @Property("${quartz.data.hibernate.shared-cache-mode:NONE}")
     private String sharedCacheMode;
 
+    @Property("${quartz.data.hibernate.cache.use-second-level-cache:false}")
+    private boolean useSecondLevelCache;
+
+    @Property("${quartz.data.hibernate.cache.use-query-cache:false}")
+    private boolean useQueryCache;
+
+    @Property("${quartz.data.hibernate.cache.default-ttl-ms:600000}")
+    private long cacheDefaultTtlMillis;
+
+    @Property("${quartz.data.hibernate.cache.default-max-size:10000}")
+    private long cacheDefaultMaxSize;
+
+    @Property("${quartz.data.hibernate.cache.regions:}")
+    private String cacheRegions;
+
+    @Property("${quartz.data.hibernate.generate-statistics:false}")
+    private boolean generateStatistics;
+
     @Property("${quartz.data.hibernate.exclude-unlisted-classes:false}")
     private boolean excludeUnlistedClasses;
 
@@ -32,4 +32,47 @@ public class JPAPersistenceProperties {
     @Property("${quartz.data.jpa.connection.provider-disables-autocommit:false}")
     private boolean providerDisablesAutocommit;
 
+    @Property("${quartz.data.jpa.count-cache.ttl-ms:30000}")
+    private long countCacheTtlMillis;
+
+    @Property("${quartz.data.jpa.count-cache.max-entries:1024}")
+    private int countCacheMaxEntries;
+
+    @Property("${quartz.data.jpa.async.threads:0}")
+    private int asyncThreads;
+
+    @Property("${quartz.data.jpa.async.queue-capacity:1000}")
+    private int asyncQueueCapacity;
+
+    @Property("${quartz.data.jpa.async.virtual-threads:true}")
+    private boolean asyncVirtualThreads;
+
+    @Property("${quartz.data.jpa.async.complete-on-main-thread:false}")
+    private boolean asyncCompleteOnMainThread;
+
+    @Property("${quartz.data.jpa.write-behind.flush-interval-ms:5000}")
+    private long writeBehindFlushIntervalMillis;
+
+    @Property("${quartz.data.jpa.write-behind.flush-threshold:500}")
+    private int writeBehindFlushThreshold;
+
+    @Property("${quartz.data.jpa.write-behind.max-pending:10000}")
+    private int writeBehindMaxPending;
+
+    @Property("${quartz.data.jpa.write-behind.journal-dir:}")
+    private String writeBehindJournalDirectory;
+
+    /**
+     * How often buffered entities are appended to the journal; saves made within this window
+     * before a crash can be lost. Zero appends on the saving thread.
+     */
+    @Property("${quartz.data.jpa.write-behind.journal-interval-ms:200}")
+    private long writeBehindJournalIntervalMillis;
+
+    @Property("${quartz.data.jpa.entity-cache.max-size:10000}")
+    private long entityCacheMaxSize;
+
+    @Property("${quartz.data.jpa.entity-cache.ttl-ms:300000}")
+    private long entityCacheTtlMillis;
+
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package xyz.quartzframework.data.properties;
+
+import lombok.Getter;
+import xyz.quartzframework.core.bean.annotation.Injectable;
+import xyz.quartzframework.core.property.Property;
+
+@Getter
+@Injectable
+public class ReplicaProperties {
+
+    /**
+     * Comma-separated JDBC URLs of the read replicas. Empty disables routing.
+     */
+    @Property("${quartz.data.jpa.replicas.urls:}")
+    private String urls;
+
+    @Property("${quartz.data.jpa.replicas.username:}")
+    private String username;
+
+    @Property("${quartz.data.jpa.replicas.password:}")
+    private String password;
+
+    @Property("${quartz.data.jpa.replicas.pool-size:0}")
+    private int poolSize;
+
+    @Property("${quartz.data.jpa.replicas.balancing:round-robin}")
+    private String balancing;
+
+    /**
+     * Also send reads made outside a transaction to the replicas. Off by default: such a read can
+     * miss a write this server committed moments before, when the replica has not applied it yet.
+     */
+    @Property("${quartz.data.jpa.replicas.route-non-transactional-reads:false}")
+    private boolean routeNonTransactionalReads;
+
+    @Property("${quartz.data.jpa.replicas.max-lag-ms:5000}")
+    private long maxLagMillis;
+
+    @Property("${quartz.data.jpa.replicas.lag-check-interval-ms:5000}")
+    private long lagCheckIntervalMillis;
+
+    @Property("${quartz.data.jpa.replicas.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+}
@@ -0,0 +1,22 @@
+package xyz.quartzframework.data.query;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a query method in the Hibernate query cache. Requires
+ * {@code quartz.data.hibernate.cache.use-query-cache}; results are invalidated when any table
+ * the query reads from is written through Hibernate.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableQuery {
+
+    /**
+     * Query cache region, or the default query results region when empty.
+     */
+    String region() default "";
+
+}
@@ -3,18 +3,23 @@ package xyz.quartzframework.data.query;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import xyz.quartzframework.core.common.Pair;
-import xyz.quartzframework.data.page.Page;
-import xyz.quartzframework.data.page.Pagination;
-import xyz.quartzframework.data.util.ParameterBindingUtil;
-
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import org.hibernate.jpa.HibernateHints;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.helper.KeysetHelper;
+import xyz.quartzframework.data.helper.PagingHelper;
+import xyz.quartzframework.data.helper.ScrollHelper;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.page.*;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -24,65 +29,108 @@ public class JPAQueryExecutor<E> implements QueryExecutor<E> {
     private final EntityManagerFactory entityManagerFactory;
     private final Class<E> entityClass;
 
+    private final CountCache countCache;
+
+    private final Map<Method, JPAQueryPlan> plans = new ConcurrentHashMap<>();
+
+    private final Map<Method, QueryBinding> bindings = new ConcurrentHashMap<>();
+
+    public JPAQueryExecutor(EntityManagerFactory entityManagerFactory, Class<E> entityClass) {
+        this(entityManagerFactory, entityClass, new CountCache(Duration.ofSeconds(30), 1024));
+    }
+
     @Override
     public <R> List<R> find(DynamicQueryDefinition query, Object[] args) {
-        try (val em = entityManagerFactory.createEntityManager()) {
+        return EntityManagerContext.execute(entityManagerFactory, em -> {
             if (query.raw() != null) {
                 return executeRawQuery(em, query, args);
             }
             val jpaQuery = buildJpaQuery(em, query, args);
             if (query.limit() != null) jpaQuery.setMaxResults(query.limit());
             return (List<R>) jpaQuery.getResultList();
-        }
+        });
+    }
+
+    /**
+     * Streams the results through a forward-only cursor. The stream holds a connection until it
+     * is closed.
+     */
+    public <R> Stream<R> stream(DynamicQueryDefinition query, Object[] args) {
+        return ScrollHelper.stream(entityManagerFactory, em -> {
+            TypedQuery<?> typedQuery = query.raw() != null ? buildRawQuery(em, query, args) : buildJpaQuery(em, query, args);
+            if (query.limit() != null && (query.raw() == null || !query.raw().toLowerCase().contains("limit"))) {
+                typedQuery.setMaxResults(query.limit());
+            }
+            return typedQuery;
+        });
     }
 
     @Override
     public <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination) {
-        try (val em = entityManagerFactory.createEntityManager()) {
-            if (query.raw() != null) {
-                val typedQuery = buildRawQuery(em, query, args);
-                typedQuery.setFirstResult(pagination.offset());
-                typedQuery.setMaxResults(pagination.size());
-                List<R> items = (List<R>) typedQuery.getResultList();
-                long total = count(query, args);
-                return Page.of(items, pagination, (int) total);
-            }
-            val jpaQuery = buildJpaQuery(em, query, args);
-            jpaQuery.setFirstResult(pagination.offset());
-            jpaQuery.setMaxResults(pagination.size());
-            List<R> items = (List<R>) jpaQuery.getResultList();
-            long total = count(query, args);
-            return Page.of(items, pagination, (int) total);
+        val pageCount = query.method() != null ? query.method().getAnnotation(PageCount.class) : null;
+        return find(query, args, pagination, pageCount != null ? pageCount.value() : CountMode.EXACT);
+    }
+
+    public <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination, CountMode countMode) {
+        return EntityManagerContext.execute(entityManagerFactory, em -> {
+            TypedQuery<?> typedQuery = query.raw() != null ? buildRawQuery(em, query, args) : buildJpaQuery(em, query, args);
+            typedQuery.setFirstResult(pagination.offset());
+            typedQuery.setMaxResults(PagingHelper.fetchSize(pagination, countMode));
+            List<R> rows = (List<R>) typedQuery.getResultList();
+            long total = switch (countMode) {
+                case EXACT -> count(em, query, args);
+                case CACHED -> countCache.get(entityClass, countKey(query), args, countTtl(query), () -> count(em, query, args));
+                case NONE -> PagingHelper.lowerBoundTotal(pagination, rows.size());
+            };
+            return Page.of(PagingHelper.content(rows, pagination.size()), pagination, (int) total);
+        });
+    }
+
+    /**
+     * Offset page without a count; fetches one extra row to tell whether a next page exists.
+     */
+    public <R> Slice<R> findSlice(DynamicQueryDefinition query, Object[] args, Pagination pagination) {
+        return EntityManagerContext.execute(entityManagerFactory, em -> {
+            TypedQuery<?> typedQuery = query.raw() != null ? buildRawQuery(em, query, args) : buildJpaQuery(em, query, args);
+            typedQuery.setFirstResult(pagination.offset());
+            typedQuery.setMaxResults(pagination.size() + 1);
+            return PagingHelper.slice((List<R>) typedQuery.getResultList(), pagination.size());
+        });
+    }
+
+    /**
+     * Keyset pagination for derived finders, seeking on the definition's orders plus the id.
+     * No count query is issued.
+     */
+    public <R> Slice<R> find(DynamicQueryDefinition query, Object[] args, Cursor cursor, int size) {
+        if (query.raw() != null) {
+            throw new UnsupportedOperationException("Keyset pagination is only supported for derived queries: " + query.method());
         }
+        if (size <= 0) throw new IllegalArgumentException("Slice size must be positive: " + size);
+        val plan = plan(query);
+        val keyset = plan.keyset();
+        return EntityManagerContext.execute(entityManagerFactory, em -> {
+            TypedQuery<E> jpaQuery;
+            if (cursor.isFirst()) {
+                jpaQuery = em.createQuery(keyset.firstJpql(), entityClass);
+            } else {
+                jpaQuery = em.createQuery(keyset.seekJpql(), entityClass);
+                keyset.bind(jpaQuery, cursor.values(keyset.signature()));
+            }
+            plan.bind(jpaQuery, args);
+            jpaQuery.setMaxResults(size + 1);
+            return (Slice<R>) KeysetHelper.slice(jpaQuery.getResultList(), size, keyset.keys());
+        });
     }
 
     @Override
     public long count(DynamicQueryDefinition query, Object[] args) {
-        try (val em = entityManagerFactory.createEntityManager()) {
-            if (query.raw() != null) {
-                val rawQuery = buildRawCountQuery(em, query, args);
-                val result = rawQuery.getResultList();
-                if (result.isEmpty()) return 0;
-                Object first = result.get(0);
-                if (first instanceof Object[] arr && arr.length == 1 && arr[0] instanceof Number n) {
-                    return n.longValue();
-                }
-                if (first instanceof Number n) {
-                    return n.longValue();
-                }
-                throw new IllegalStateException("Expected count query to return a number, got: " + first);
-            }
-            val cb = em.getCriteriaBuilder();
-            val cq = cb.createQuery(Long.class);
-            val root = cq.from(entityClass);
-            cq.select(query.distinct() ? cb.countDistinct(root) : cb.count(root)).where(buildPredicates(query, cb, root, query.queryConditions(), args));
-            return em.createQuery(cq).getSingleResult();
-        }
+        return EntityManagerContext.execute(entityManagerFactory, em -> count(em, query, args));
     }
 
     @Override
     public boolean exists(DynamicQueryDefinition query, Object[] args) {
-        try (val em = entityManagerFactory.createEntityManager()) {
+        return EntityManagerContext.execute(entityManagerFactory, em -> {
             if (query.raw() != null) {
                 val q = buildRawQuery(em, query, args);
                 Object result = q.setMaxResults(1).getSingleResult();
@@ -90,8 +138,34 @@ public class JPAQueryExecutor<E> implements QueryExecutor<E> {
                 if (result instanceof Number n) return n.longValue() > 0;
                 throw new IllegalStateException("Expected exists query to return boolean or number, got: " + result);
             }
-            return count(query, args) > 0;
+            return count(em, query, args) > 0;
+        });
+    }
+
+    private Object countKey(DynamicQueryDefinition query) {
+        return query.method() != null ? query.method() : query;
+    }
+
+    private Duration countTtl(DynamicQueryDefinition query) {
+        val pageCount = query.method() != null ? query.method().getAnnotation(PageCount.class) : null;
+        return pageCount != null && pageCount.ttlMillis() >= 0 ? Duration.ofMillis(pageCount.ttlMillis()) : countCache.getDefaultTtl();
+    }
+
+    private long count(EntityManager em, DynamicQueryDefinition query, Object[] args) {
+        if (query.raw() != null) {
+            val rawQuery = buildRawCountQuery(em, query, args);
+            val result = rawQuery.getResultList();
+            if (result.isEmpty()) return 0;
+            Object first = result.get(0);
+            if (first instanceof Object[] arr && arr.length == 1 && arr[0] instanceof Number n) {
+                return n.longValue();
+            }
+            if (first instanceof Number n) {
+                return n.longValue();
+            }
+            throw new IllegalStateException("Expected count query to return a number, got: " + first);
         }
+        return buildCountQuery(em, query, args).getSingleResult();
     }
 
     private <R> List<R> executeRawQuery(EntityManager em, DynamicQueryDefinition query, Object[] args) {
@@ -119,6 +193,7 @@ public class JPAQueryExecutor<E> implements QueryExecutor<E> {
             }
         }
         bindParameters(typedQuery, query, args);
+        applyCacheHints(typedQuery, query);
         return (TypedQuery<R>) typedQuery;
     }
 
@@ -127,208 +202,64 @@ public class JPAQueryExecutor<E> implements QueryExecutor<E> {
                 ? em.createNativeQuery(query.raw(), Long.class)
                 : em.createQuery(query.raw(), Long.class);
         bindParameters(rawQuery, query, args);
+        applyCacheHints(rawQuery, query);
         return rawQuery;
     }
 
     private TypedQuery<E> buildJpaQuery(EntityManager em, DynamicQueryDefinition query, Object[] args) {
-        val cb = em.getCriteriaBuilder();
-        val cq = cb.createQuery(entityClass);
-        val root = cq.from(entityClass);
-
-        cq.where(buildPredicates(query, cb, root, query.queryConditions(), args));
-
-        if (!query.orders().isEmpty()) {
-            cq.orderBy(buildOrders(cb, root, query.orders()));
-        }
-
-        if (query.distinct()) {
-            cq.distinct(true);
-        }
-
-        return em.createQuery(cq);
+        val plan = plan(query);
+        val jpaQuery = em.createQuery(plan.selectJpql(), entityClass);
+        plan.bind(jpaQuery, args);
+        applyCacheHints(jpaQuery, query);
+        return jpaQuery;
     }
 
-    private Predicate[] buildPredicates(DynamicQueryDefinition queryDefinition, CriteriaBuilder cb, Root<E> root, List<QueryCondition> conditions, Object[] args) {
-        return conditions.stream()
-                .map(cond -> buildPredicate(queryDefinition, cb, root, cond, args))
-                .filter(Objects::nonNull)
-                .toArray(Predicate[]::new);
+    private TypedQuery<Long> buildCountQuery(EntityManager em, DynamicQueryDefinition query, Object[] args) {
+        val plan = plan(query);
+        val countQuery = em.createQuery(plan.countJpql(), Long.class);
+        plan.bind(countQuery, args);
+        applyCacheHints(countQuery, query);
+        return countQuery;
     }
 
-    private List<jakarta.persistence.criteria.Order> buildOrders(CriteriaBuilder cb, Root<E> root, List<xyz.quartzframework.data.query.Order> orders) {
-        return orders.stream()
-                .map(order -> order.descending()
-                        ? cb.desc(root.get(order.property()))
-                        : cb.asc(root.get(order.property())))
-                .toList();
-    }
-
-    private void bindParameters(jakarta.persistence.Query query, DynamicQueryDefinition def, Object[] args) {
-        for (QuerySubstitution sub : def.querySubstitutions()) {
-            Object value;
-
-            if (sub.isLiteral()) {
-                value = sub.getLiteralValue();
-            } else if (sub.isNamed()) {
-                String name = sub.getNameOrIndex();
-                if (name == null || name.isBlank()) {
-                    throw new IllegalArgumentException("Named parameter substitution is missing a name: " + sub);
-                }
-                value = ParameterBindingUtil.findNamedParameter(def.method(), name, args);
-                query.setParameter(name, value);
-            } else {
-                String key = sub.getNameOrIndex();
-                if (key == null || key.isBlank()) {
-                    throw new IllegalArgumentException("Positional parameter substitution is missing an index: " + sub);
-                }
-
-                int index;
-                try {
-                    index = Integer.parseInt(key);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid positional parameter index: ?" + key, e);
-                }
-
-                if (index < 0 || index >= args.length) {
-                    throw new IllegalArgumentException("Missing argument for positional index: ?" + index);
-                }
-
-                value = args[index];
-                query.setParameter(index + 1, value);
-            }
+    private void applyCacheHints(jakarta.persistence.Query jpaQuery, DynamicQueryDefinition query) {
+        val cacheable = query.method() != null ? query.method().getAnnotation(CacheableQuery.class) : null;
+        if (cacheable == null) return;
+        jpaQuery.setHint(HibernateHints.HINT_CACHEABLE, true);
+        if (!cacheable.region().isEmpty()) {
+            jpaQuery.setHint(HibernateHints.HINT_CACHE_REGION, cacheable.region());
         }
     }
 
-    private Predicate buildPredicate(DynamicQueryDefinition queryDefinition, CriteriaBuilder cb, Root<E> root, QueryCondition cond, Object[] args) {
-        Object value;
-
-        int index = queryDefinition.queryConditions().indexOf(cond);
-        if (index == -1 || index >= queryDefinition.querySubstitutions().size()) {
-            throw new IllegalStateException("No substitution found for condition: " + cond.getRawCondition());
+    /**
+     * Plan for a derived query, compiled on the first call of its method. A storage method always
+     * parses to the same definition, so the plan is looked up by method alone.
+     */
+    JPAQueryPlan plan(DynamicQueryDefinition query) {
+        if (query.method() == null) {
+            return JPAQueryPlan.compile(entityManagerFactory.getMetamodel(), entityClass, query);
         }
-
-        val substitution = queryDefinition.querySubstitutions().get(index);
-
-        if (substitution.isLiteral()) {
-            value = substitution.getLiteralValue();
-        } else if (substitution.isNamed()) {
-            String name = substitution.getNameOrIndex();
-            if (name == null || name.isBlank()) {
-                throw new IllegalArgumentException("Named parameter missing name: " + substitution);
-            }
-            value = ParameterBindingUtil.findNamedParameter(queryDefinition.method(), name, args);
-        } else if (substitution.isPositional()) {
-            String key = substitution.getNameOrIndex();
-            if (key == null || key.isBlank()) {
-                throw new IllegalArgumentException("Positional parameter missing index: " + substitution);
-            }
-            int paramIndex;
-            try {
-                paramIndex = Integer.parseInt(key);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid positional index: ?" + key, e);
-            }
-            if (paramIndex < 0 || paramIndex >= args.length) {
-                throw new IllegalArgumentException("Missing argument at index: ?" + paramIndex);
-            }
-            value = args[paramIndex];
-        } else {
-            throw new IllegalStateException("Unrecognized substitution: " + substitution);
-        }
-
-        Path<?> path = resolvePath(root, cond.getAttribute().name(), queryDefinition.raw());
-
-        return switch (cond.getOperation()) {
-            case EQUAL -> cb.equal(path, value);
-            case NOT_EQUAL -> cb.notEqual(path, value);
-            case LIKE -> cb.like(path.as(String.class), String.valueOf(value));
-            case NOT_LIKE -> cb.notLike(path.as(String.class), String.valueOf(value));
-            case IS_NULL -> cb.isNull(path);
-            case IS_NOT_NULL -> cb.isNotNull(path);
-            case IN -> {
-                if (!(value instanceof Collection<?> col)) {
-                    throw new IllegalArgumentException("IN expects Collection, got: " + value);
-                }
-                yield path.in(col);
-            }
-            case NOT_IN -> {
-                if (!(value instanceof Collection<?> col)) {
-                    throw new IllegalArgumentException("NOT IN expects Collection, got: " + value);
-                }
-                yield cb.not(path.in(col));
-            }
-            case GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL -> {
-                if (!(value instanceof Comparable<?> cmp)) {
-                    throw new IllegalArgumentException("Comparison expects Comparable, got: " + value);
-                }
-                Path<? extends Comparable<Object>> cmpPath = (Path<? extends Comparable<Object>>) path;
-                Comparable<Object> cmpVal = (Comparable<Object>) cmp;
-                yield switch (cond.getOperation()) {
-                    case GREATER_THAN -> cb.greaterThan(cmpPath, cmpVal);
-                    case GREATER_THAN_OR_EQUAL -> cb.greaterThanOrEqualTo(cmpPath, cmpVal);
-                    case LESS_THAN -> cb.lessThan(cmpPath, cmpVal);
-                    case LESS_THAN_OR_EQUAL -> cb.lessThanOrEqualTo(cmpPath, cmpVal);
-                    default -> throw new IllegalArgumentException("Invalid op: " + cond.getOperation());
-                };
-            }
-        };
+        return plans.computeIfAbsent(query.method(),
+                method -> JPAQueryPlan.compile(entityManagerFactory.getMetamodel(), entityClass, query));
     }
 
-    private Path<Object> resolvePath(From<?, ?> root, String propertyPath, String rawQuery) {
-        String[] parts = propertyPath.split("\\.");
-        if (parts.length == 1) {
-            return root.get(parts[0]);
-        }
-        if (rawQuery == null) {
-            Path<?> path = root;
-            for (String part : parts) {
-                path = path.get(part);
+    private void bindParameters(jakarta.persistence.Query query, DynamicQueryDefinition def, Object[] args) {
+        val binding = binding(def);
+        for (int i = 0; i < binding.size(); i++) {
+            if (binding.isLiteral(i)) continue;
+            val value = binding.value(i, args);
+            if (binding.isNamed(i)) {
+                query.setParameter(binding.name(i), value);
+            } else {
+                query.setParameter(binding.position(i) + 1, value);
             }
-            return (Path<Object>) path;
-        }
-        Map<String, Pair<String, JoinType>> aliasMap = extractAliases(rawQuery);
-        String alias = parts[0];
-        String property = parts[1];
-        if (!aliasMap.containsKey(alias)) {
-            throw new IllegalArgumentException("Unknown alias in query: " + alias);
         }
-        Pair<String, JoinType> joinPath = aliasMap.get(alias);
-        if (joinPath.getFirst().isEmpty()) {
-            return root.get(property);
-        }
-        String[] joinParts = joinPath.getFirst().split("\\.");
-        From<?, ?> current = root;
-        for (int i = 1; i < joinParts.length; i++) {
-            current = current.join(joinParts[i], joinPath.getSecond());
-        }
-        return current.get(property);
     }
 
-    private Map<String, Pair<String, JoinType>> extractAliases(String rawQuery) {
-        Map<String, Pair<String, JoinType>> aliasMap = new HashMap<>();
-        Matcher fromMatcher = Pattern.compile(
-                "(?i)from\\s+(\\w+(?:\\.\\w+)?)(?:\\s+as)?\\s+(\\w+)"
-        ).matcher(rawQuery);
-        if (fromMatcher.find()) {
-            String alias = fromMatcher.group(2);
-            aliasMap.put(alias, Pair.of("", JoinType.INNER));
-        }
-        Matcher joinMatcher = Pattern.compile(
-                "(?i)(left|inner|right|full)?\\s*join\\s+(\\w+(?:\\.\\w+)*)\\s+(?:as\\s+)?(\\w+)"
-        ).matcher(rawQuery);
-        while (joinMatcher.find()) {
-            String joinTypeRaw = joinMatcher.group(1);
-            String path = joinMatcher.group(2);
-            String alias = joinMatcher.group(3);
-            JoinType joinType = switch (joinTypeRaw == null ? "" : joinTypeRaw.toLowerCase()) {
-                case "left" -> JoinType.LEFT;
-                case "right" -> JoinType.RIGHT;
-                case "inner" -> JoinType.INNER;
-                case "full" -> JoinType.LEFT;
-                default -> JoinType.INNER;
-            };
-            aliasMap.put(alias, Pair.of(path, joinType));
+    private QueryBinding binding(DynamicQueryDefinition query) {
+        if (query.method() == null) {
+            return QueryBinding.of(null, query.querySubstitutions());
         }
-        return aliasMap;
+        return bindings.computeIfAbsent(query.method(), method -> QueryBinding.of(method, query.querySubstitutions()));
     }
-}
\ No newline at end of file
+}
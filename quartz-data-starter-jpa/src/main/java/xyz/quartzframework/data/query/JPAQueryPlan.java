@@ -0,0 +1,225 @@
+package xyz.quartzframework.data.query;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.*;
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.helper.KeysetHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPQL compiled once from a derived {@link DynamicQueryDefinition}.
+ * <p>
+ * Executing a plan only creates the query from its JPQL string, which Hibernate resolves through
+ * its query plan cache, and binds one parameter per value-taking condition. Argument slots,
+ * operations and literal values are resolved at compile time, so binding is a loop over arrays.
+ * A plan is immutable once compiled and can be shared between threads.
+ */
+final class JPAQueryPlan {
+
+    private static final String ALIAS = "e";
+
+    private final DynamicQueryDefinition definition;
+
+    private final String selectJpql;
+
+    private final String countJpql;
+
+    private final String[] parameterNames;
+
+    private final Operation[] operations;
+
+    private final QueryBinding binding;
+
+    @Nullable
+    private final Keyset keyset;
+
+    private JPAQueryPlan(DynamicQueryDefinition definition,
+                         String selectJpql,
+                         String countJpql,
+                         String[] parameterNames,
+                         Operation[] operations,
+                         QueryBinding binding,
+                         @Nullable Keyset keyset) {
+        this.definition = definition;
+        this.selectJpql = selectJpql;
+        this.countJpql = countJpql;
+        this.parameterNames = parameterNames;
+        this.operations = operations;
+        this.binding = binding;
+        this.keyset = keyset;
+    }
+
+    String selectJpql() {
+        return selectJpql;
+    }
+
+    String countJpql() {
+        return countJpql;
+    }
+
+    Keyset keyset() {
+        if (keyset == null) {
+            throw new UnsupportedOperationException("Keyset pagination requires a single id attribute: " + definition.method());
+        }
+        return keyset;
+    }
+
+    void bind(Query query, Object[] args) {
+        for (int i = 0; i < parameterNames.length; i++) {
+            val value = binding.value(i, args);
+            query.setParameter(parameterNames[i], binding.isLiteral(i) ? value : convert(operations[i], value));
+        }
+    }
+
+    static JPAQueryPlan compile(Metamodel metamodel, Class<?> entityClass, DynamicQueryDefinition definition) {
+        val entityType = metamodel.entity(entityClass);
+        val conditions = definition.queryConditions();
+        val substitutions = definition.querySubstitutions();
+        val where = new StringBuilder();
+        val names = new ArrayList<String>();
+        val operations = new ArrayList<Operation>();
+        val bound = new ArrayList<QuerySubstitution>();
+        for (int i = 0; i < conditions.size(); i++) {
+            val condition = conditions.get(i);
+            if (i >= substitutions.size()) {
+                throw new IllegalStateException("No substitution found for condition: " + condition.getRawCondition());
+            }
+            val attribute = condition.getAttribute().name();
+            val path = ALIAS + "." + attribute;
+            val name = "p" + i;
+            where.append(where.isEmpty() ? " where " : " and ");
+            switch (condition.getOperation()) {
+                case EQUAL -> where.append(path).append(" = :").append(name);
+                case NOT_EQUAL -> where.append(path).append(" <> :").append(name);
+                case LIKE -> where.append(asString(entityType, attribute, path)).append(" like :").append(name);
+                case NOT_LIKE -> where.append(asString(entityType, attribute, path)).append(" not like :").append(name);
+                case IS_NULL -> where.append(path).append(" is null");
+                case IS_NOT_NULL -> where.append(path).append(" is not null");
+                case IN -> where.append(path).append(" in :").append(name);
+                case NOT_IN -> where.append(path).append(" not in :").append(name);
+                case GREATER_THAN -> where.append(path).append(" > :").append(name);
+                case GREATER_THAN_OR_EQUAL -> where.append(path).append(" >= :").append(name);
+                case LESS_THAN -> where.append(path).append(" < :").append(name);
+                case LESS_THAN_OR_EQUAL -> where.append(path).append(" <= :").append(name);
+            }
+            switch (condition.getOperation()) {
+                case IS_NULL, IS_NOT_NULL -> {
+                }
+                default -> {
+                    names.add(name);
+                    operations.add(condition.getOperation());
+                    bound.add(substitutions.get(i));
+                }
+            }
+        }
+        val from = " from " + entityType.getName() + " " + ALIAS + where;
+        val select = new StringBuilder("select ")
+                .append(definition.distinct() ? "distinct " : "")
+                .append(ALIAS)
+                .append(from);
+        if (!definition.orders().isEmpty()) {
+            select.append(" order by ");
+            select.append(String.join(", ", definition.orders().stream()
+                    .map(order -> ALIAS + "." + order.property() + (order.descending() ? " desc" : " asc"))
+                    .toList()));
+        }
+        val count = "select count(" + (definition.distinct() ? "distinct " : "") + ALIAS + ")" + from;
+        val keyset = entityType.hasSingleIdAttribute()
+                ? Keyset.compile(definition, from, !where.isEmpty(), entityType.getId(entityType.getIdType().getJavaType()).getName())
+                : null;
+        val binding = QueryBinding.of(definition.method(), bound)
+                .mapLiterals((i, literal) -> convert(operations.get(i), literal));
+        return new JPAQueryPlan(
+                definition,
+                select.toString(),
+                count,
+                names.toArray(String[]::new),
+                operations.toArray(Operation[]::new),
+                binding,
+                keyset);
+    }
+
+    private static Object convert(Operation operation, Object value) {
+        return switch (operation) {
+            case LIKE, NOT_LIKE -> String.valueOf(value);
+            case IN, NOT_IN -> {
+                if (!(value instanceof Collection<?>)) {
+                    throw new IllegalArgumentException(operation == Operation.IN
+                            ? "IN expects Collection, got: " + value
+                            : "NOT IN expects Collection, got: " + value);
+                }
+                yield value;
+            }
+            case GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL -> {
+                if (!(value instanceof Comparable<?>)) {
+                    throw new IllegalArgumentException("Comparison expects Comparable, got: " + value);
+                }
+                yield value;
+            }
+            default -> value;
+        };
+    }
+
+    private static String asString(ManagedType<?> entityType, String attribute, String path) {
+        return resolveJavaType(entityType, attribute) == String.class ? path : "cast(" + path + " as String)";
+    }
+
+    private static Class<?> resolveJavaType(ManagedType<?> type, String attributePath) {
+        try {
+            ManagedType<?> current = type;
+            Class<?> javaType = null;
+            for (val part : attributePath.split("\\.")) {
+                if (current == null) return null;
+                val attribute = current.getAttribute(part);
+                javaType = attribute.getJavaType();
+                Type<?> next = attribute instanceof PluralAttribute<?, ?, ?> plural
+                        ? plural.getElementType()
+                        : ((SingularAttribute<?, ?>) attribute).getType();
+                current = next instanceof ManagedType<?> managed ? managed : null;
+            }
+            return javaType;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Seek variant of a plan: the definition's orders followed by the id as a tie-breaker, with
+     * one JPQL string for the first slice and one that seeks past the previous slice's last row.
+     */
+    record Keyset(List<KeysetHelper.Key> keys, List<String> signature, String firstJpql, String seekJpql) {
+
+        static Keyset compile(DynamicQueryDefinition definition, String from, boolean filtered, String idAttribute) {
+            val keys = KeysetHelper.keys(definition.orders().stream()
+                    .map(order -> new KeysetHelper.Key(order.property(), order.descending()))
+                    .toList(), idAttribute);
+            val select = "select " + (definition.distinct() ? "distinct " : "") + ALIAS + from;
+            val orderBy = " order by " + String.join(", ", keys.stream()
+                    .map(key -> ALIAS + "." + key.property() + (key.descending() ? " desc" : " asc"))
+                    .toList());
+            val seek = new StringBuilder(filtered ? " and (" : " where (");
+            for (int i = 0; i < keys.size(); i++) {
+                if (i > 0) seek.append(" or ");
+                seek.append("(");
+                for (int j = 0; j < i; j++) {
+                    seek.append(ALIAS).append(".").append(keys.get(j).property()).append(" = :k").append(j).append(" and ");
+                }
+                seek.append(ALIAS).append(".").append(keys.get(i).property())
+                        .append(keys.get(i).descending() ? " < :k" : " > :k").append(i)
+                        .append(")");
+            }
+            seek.append(")");
+            return new Keyset(keys, KeysetHelper.signature(keys), select + orderBy, select + seek + orderBy);
+        }
+
+        void bind(Query query, Object[] values) {
+            for (int i = 0; i < values.length; i++) {
+                query.setParameter("k" + i, values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.quartzframework.data.query;
+
+import xyz.quartzframework.data.page.CountMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how paged calls of a query method obtain their total. A negative {@link #ttlMillis()}
+ * uses {@code quartz.data.jpa.count-cache.ttl-ms}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PageCount {
+
+    CountMode value() default CountMode.CACHED;
+
+    long ttlMillis() default -1;
+
+}
@@ -0,0 +1,142 @@
+package xyz.quartzframework.data.query;
+
+import lombok.val;
+import xyz.quartzframework.data.util.ParameterBindingUtil;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Argument slots resolved once for a list of {@link QuerySubstitution}s.
+ * <p>
+ * Positional substitutions and named ones bound through {@link QueryParameter} map straight to
+ * an argument index, and literals are kept as-is, so resolving a value is an array lookup.
+ * Named substitutions without a matching annotated parameter are still resolved through
+ * {@link ParameterBindingUtil} on each call. A binding is immutable once built.
+ */
+final class QueryBinding {
+
+    private static final int LITERAL = -1;
+
+    private static final int NAMED_LOOKUP = -2;
+
+    private final Method method;
+
+    private final int[] slots;
+
+    private final Object[] literals;
+
+    private final String[] names;
+
+    private QueryBinding(Method method, int[] slots, Object[] literals, String[] names) {
+        this.method = method;
+        this.slots = slots;
+        this.literals = literals;
+        this.names = names;
+    }
+
+    static QueryBinding of(Method method, List<QuerySubstitution> substitutions) {
+        val size = substitutions.size();
+        val slots = new int[size];
+        val literals = new Object[size];
+        val names = new String[size];
+        for (int i = 0; i < size; i++) {
+            val substitution = substitutions.get(i);
+            if (substitution.isLiteral()) {
+                slots[i] = LITERAL;
+                literals[i] = substitution.getLiteralValue();
+            } else if (substitution.isNamed()) {
+                val name = substitution.getNameOrIndex();
+                if (name == null || name.isBlank()) {
+                    throw new IllegalArgumentException("Named parameter missing name: " + substitution);
+                }
+                names[i] = name;
+                slots[i] = namedSlot(method, name);
+            } else if (substitution.isPositional()) {
+                slots[i] = positionalSlot(substitution);
+            } else {
+                throw new IllegalStateException("Unrecognized substitution: " + substitution);
+            }
+        }
+        return new QueryBinding(method, slots, literals, names);
+    }
+
+    int size() {
+        return slots.length;
+    }
+
+    boolean isLiteral(int i) {
+        return slots[i] == LITERAL;
+    }
+
+    boolean isNamed(int i) {
+        return names[i] != null;
+    }
+
+    String name(int i) {
+        return names[i];
+    }
+
+    int position(int i) {
+        return slots[i];
+    }
+
+    Object value(int i, Object[] args) {
+        val slot = slots[i];
+        if (slot >= 0) {
+            if (slot >= args.length) {
+                throw new IllegalArgumentException("Missing argument at index: ?" + slot);
+            }
+            return args[slot];
+        }
+        if (slot == LITERAL) {
+            return literals[i];
+        }
+        return ParameterBindingUtil.findNamedParameter(method, names[i], args);
+    }
+
+    /**
+     * Copy of this binding with each literal replaced by {@code converter(index, literal)}.
+     */
+    QueryBinding mapLiterals(BiFunction<Integer, Object, Object> converter) {
+        val converted = literals.clone();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == LITERAL) {
+                converted[i] = converter.apply(i, literals[i]);
+            }
+        }
+        return new QueryBinding(method, slots, converted, names);
+    }
+
+    private static int namedSlot(Method method, String name) {
+        if (method == null) {
+            return NAMED_LOOKUP;
+        }
+        val parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            val annotation = parameters[i].getAnnotation(QueryParameter.class);
+            if (annotation != null && name.equals(annotation.value())) {
+                return i;
+            }
+        }
+        return NAMED_LOOKUP;
+    }
+
+    private static int positionalSlot(QuerySubstitution substitution) {
+        val key = substitution.getNameOrIndex();
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Positional parameter missing index: " + substitution);
+        }
+        int index;
+        try {
+            index = Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid positional index: ?" + key, e);
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Missing argument at index: ?" + index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.routing;
+
+/**
+ * How {@link ReplicaRoutingDataSource} picks among healthy replicas.
+ */
+public enum ReplicaBalancing {
+
+    ROUND_ROBIN,
+
+    /**
+     * The replica whose pool has the fewest connections in use.
+     */
+    LEAST_CONNECTIONS
+}
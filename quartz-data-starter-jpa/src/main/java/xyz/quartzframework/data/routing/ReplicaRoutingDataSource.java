@@ -0,0 +1,300 @@
+package xyz.quartzframework.data.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.lang.Nullable;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} over a primary pool and a set of read replica pools, choosing the pool from
+ * the {@link RoutingContext} of the calling thread.
+ * <p>
+ * Read-only transactions, and non-transactional reads when enabled, get a replica connection;
+ * everything else gets a primary one. A replica read may not see a write committed just before on
+ * the primary, which is why non-transactional reads stay on the primary by default. When lag
+ * checking is enabled each replica is polled with the lag query from a background thread and
+ * fenced off while it is more than {@code maxLag} behind, while replication is stopped, or while
+ * it cannot be reached. Replicas start fenced until their first check. Reads fall back to the
+ * primary when every replica is fenced, so a lagging replica never serves reads older than
+ * {@code maxLag}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource implements DataSource, AutoCloseable {
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    @Getter
+    private final HikariDataSource primary;
+
+    @Getter
+    private final List<Replica> replicas;
+
+    private final ReplicaBalancing balancing;
+
+    private final boolean routeNonTransactionalReads;
+
+    private final long maxLagMillis;
+
+    private final String lagQuery;
+
+    @Nullable
+    private final ScheduledExecutorService lagChecker;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder replicaConnections = new LongAdder();
+
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary,
+                                    List<HikariDataSource> replicas,
+                                    ReplicaBalancing balancing,
+                                    boolean routeNonTransactionalReads,
+                                    Duration maxLag,
+                                    Duration lagCheckInterval,
+                                    String lagQuery) {
+        val interval = lagCheckInterval.toMillis();
+        val lagChecked = interval > 0 && maxLag.toMillis() >= 0 && !lagQuery.isBlank() && !replicas.isEmpty();
+        this.primary = primary;
+        this.replicas = replicas.stream().map(dataSource -> new Replica(dataSource, lagChecked)).toList();
+        this.balancing = balancing;
+        this.routeNonTransactionalReads = routeNonTransactionalReads;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        if (lagChecked) {
+            this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                val thread = new Thread(runnable, "quartz-jpa-replica-lag");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagChecker.scheduleWithFixedDelay(this::checkLag, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.lagChecker = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaRoute(RoutingContext.get())) {
+            return primary.getConnection();
+        }
+        val replica = choose();
+        if (replica != null) {
+            try {
+                val connection = replica.dataSource.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Could not get a connection from replica {}, reading from the primary", replica.getUrl(), e);
+                if (lagChecker != null) replica.fenced = true;
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Connections handed out by replicas.
+     */
+    public long getReplicaConnectionCount() {
+        return replicaConnections.sum();
+    }
+
+    /**
+     * Reads served by the primary because no replica was available.
+     */
+    public long getPrimaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> !replica.fenced).count();
+    }
+
+    /**
+     * Polls every replica with the lag query once, fencing or unfencing it.
+     */
+    public void checkLag() {
+        for (val replica : replicas) {
+            try {
+                val lag = lagMillis(replica.dataSource);
+                replica.lagMillis = lag == null ? -1 : lag;
+                val fenced = lag == null || lag > maxLagMillis;
+                if (fenced != replica.fenced) {
+                    if (fenced) {
+                        log.warn("Fencing replica {}: lag {}", replica.getUrl(), lag == null ? "unknown" : lag + "ms");
+                    } else {
+                        log.info("Replica {} caught up, lag {}ms", replica.getUrl(), lag);
+                    }
+                }
+                replica.fenced = fenced;
+            } catch (SQLException | RuntimeException e) {
+                if (!replica.fenced) log.warn("Fencing replica {}: lag check failed", replica.getUrl(), e);
+                replica.lagMillis = -1;
+                replica.fenced = true;
+            }
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        if (lagChecker != null) lagChecker.shutdownNow();
+        for (val replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.close();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private boolean isReplicaRoute(@Nullable RoutingContext.Route route) {
+        if (route == null) return false;
+        return switch (route) {
+            case READ_ONLY_TRANSACTION -> true;
+            case NON_TRANSACTIONAL_READ -> routeNonTransactionalReads;
+            case PRIMARY -> false;
+        };
+    }
+
+    @Nullable
+    private Replica choose() {
+        val healthy = new ArrayList<Replica>(replicas.size());
+        for (val replica : replicas) {
+            if (!replica.fenced) healthy.add(replica);
+        }
+        if (healthy.isEmpty()) return null;
+        if (balancing == ReplicaBalancing.LEAST_CONNECTIONS) {
+            Replica least = null;
+            int fewest = Integer.MAX_VALUE;
+            for (val replica : healthy) {
+                val active = replica.activeConnections();
+                if (active < fewest) {
+                    least = replica;
+                    fewest = active;
+                }
+            }
+            return least;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * Lag reported by the lag query, from a {@code Seconds_Behind_Source} or
+     * {@code Seconds_Behind_Master} column when present and otherwise from the first column, in
+     * seconds. No row means the server is not a replica, so it has no lag; a null value means
+     * replication is stopped and the lag is unknown.
+     */
+    @Nullable
+    private Long lagMillis(DataSource dataSource) throws SQLException {
+        try (val connection = dataSource.getConnection();
+             val statement = connection.createStatement();
+             val resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) return 0L;
+            val seconds = resultSet.getObject(lagColumn(resultSet));
+            if (seconds == null) return null;
+            return Math.round(((Number) seconds).doubleValue() * 1000);
+        }
+    }
+
+    private static int lagColumn(ResultSet resultSet) throws SQLException {
+        val metaData = resultSet.getMetaData();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (LAG_COLUMNS.contains(metaData.getColumnLabel(column))) return column;
+        }
+        return 1;
+    }
+
+    /**
+     * A replica pool and its last known lag.
+     */
+    public static final class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private volatile boolean fenced;
+
+        private volatile long lagMillis = -1;
+
+        private Replica(HikariDataSource dataSource, boolean fenced) {
+            this.dataSource = dataSource;
+            this.fenced = fenced;
+        }
+
+        public String getUrl() {
+            return dataSource.getJdbcUrl();
+        }
+
+        public boolean isFenced() {
+            return fenced;
+        }
+
+        /**
+         * Lag at the last check in milliseconds, or -1 when unknown.
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        private int activeConnections() {
+            val pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package xyz.quartzframework.data.routing;
+
+import lombok.val;
+import org.springframework.lang.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound hint telling {@link ReplicaRoutingDataSource} what the next connection is for.
+ * <p>
+ * Hibernate takes its connection when a transaction begins or, outside one, on the first
+ * statement, so the route only has to be set around that point. Without a route connections come
+ * from the primary.
+ */
+public class RoutingContext {
+
+    private static final ThreadLocal<Route> context = new ThreadLocal<>();
+
+    public enum Route {
+
+        /**
+         * Writes and read-write transactions.
+         */
+        PRIMARY,
+
+        /**
+         * Reads on a short-lived EntityManager, outside any transaction.
+         */
+        NON_TRANSACTIONAL_READ,
+
+        /**
+         * {@code @Transactional(readOnly = true)}.
+         */
+        READ_ONLY_TRANSACTION
+    }
+
+    @Nullable
+    public static Route get() {
+        return context.get();
+    }
+
+    /**
+     * Sets the route for this thread.
+     *
+     * @return the previous route, to be passed to {@link #restore}
+     */
+    @Nullable
+    public static Route set(Route route) {
+        val previous = context.get();
+        context.set(route);
+        return previous;
+    }
+
+    public static void restore(@Nullable Route previous) {
+        if (previous == null) {
+            context.remove();
+        } else {
+            context.set(previous);
+        }
+    }
+
+    public static <T> T call(Route route, Supplier<T> action) {
+        val previous = set(route);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+}
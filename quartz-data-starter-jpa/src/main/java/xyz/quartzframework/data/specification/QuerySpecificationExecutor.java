@@ -1,10 +1,9 @@
 package xyz.quartzframework.data.specification;
 
-import xyz.quartzframework.data.page.Page;
-import xyz.quartzframework.data.page.Pagination;
-import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.page.*;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface QuerySpecificationExecutor<E> {
 
@@ -14,8 +13,32 @@ public interface QuerySpecificationExecutor<E> {
 
     Page<E> find(QuerySpecification<E> spec, Pagination pagination);
 
+    Page<E> find(QuerySpecification<E> spec, Pagination pagination, CountMode countMode);
+
+    Slice<E> findSlice(QuerySpecification<E> spec, Pagination pagination);
+
+    Slice<E> find(QuerySpecification<E> spec, Cursor cursor, Sort sort, int size);
+
+    Stream<E> stream(QuerySpecification<E> spec);
+
     long count(QuerySpecification<E> spec);
 
     boolean exists(QuerySpecification<E> spec);
 
+    /**
+     * Deletes matching rows with bulk statements, without loading the entities. Lifecycle
+     * callbacks, cascades and the persistence context are bypassed.
+     *
+     * @return the number of deleted rows
+     */
+    int delete(QuerySpecification<E> spec);
+
+    /**
+     * Updates matching rows with bulk statements, without loading the entities. Lifecycle
+     * callbacks, version increments and the persistence context are bypassed.
+     *
+     * @return the number of updated rows
+     */
+    int update(QuerySpecification<E> spec, UpdateSpecification<E> setter);
+
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package xyz.quartzframework.data.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+@FunctionalInterface
+public interface UpdateSpecification<T> {
+
+    void apply(Root<T> root, CriteriaUpdate<T> update, CriteriaBuilder cb);
+
+}
@@ -0,0 +1,108 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.annotation.SuperStorage;
+import xyz.quartzframework.data.async.DatabaseExecutor;
+import xyz.quartzframework.data.page.*;
+import xyz.quartzframework.data.specification.QuerySpecification;
+import xyz.quartzframework.data.specification.UpdateSpecification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking counterpart of {@link JPAStorage} and
+ * {@link xyz.quartzframework.data.specification.QuerySpecificationExecutor}: every operation runs
+ * on the {@link DatabaseExecutor} and returns a future, so it can be called from the main thread.
+ * <p>
+ * Methods carry an {@code Async} suffix because the storage behind this interface is also a
+ * {@link SimpleStorage}. Each call runs in its own EntityManager and transaction; calls made
+ * inside a {@code @Transactional} method do not join it.
+ */
+@SuperStorage(AsyncJPAStorageProvider.class)
+public interface AsyncJPAStorage<E, ID> {
+
+    Class<E> getEntityClass();
+
+    Class<ID> getIdClass();
+
+    CompletableFuture<Optional<E>> findByIdAsync(ID id);
+
+    CompletableFuture<List<E>> findAllByIdAsync(Iterable<ID> ids);
+
+    CompletableFuture<Boolean> existsAsync(ID id);
+
+    CompletableFuture<Boolean> existsAllByIdAsync(Iterable<ID> ids);
+
+    CompletableFuture<Long> countAsync();
+
+    CompletableFuture<E> saveAsync(E entity);
+
+    CompletableFuture<List<E>> saveAsync(Iterable<E> entities);
+
+    CompletableFuture<E> saveAndFlushAsync(E entity);
+
+    CompletableFuture<List<E>> saveAndFlushAsync(Iterable<E> entities);
+
+    CompletableFuture<Void> deleteByIdAsync(ID id);
+
+    CompletableFuture<Integer> deleteAllByIdAsync(Iterable<ID> ids);
+
+    CompletableFuture<Void> deleteAsync(E entity);
+
+    CompletableFuture<Void> deleteAsync(Iterable<E> entities);
+
+    CompletableFuture<List<E>> findAllAsync();
+
+    CompletableFuture<List<E>> findAllAsync(Sort sort);
+
+    CompletableFuture<Page<E>> findAllAsync(Pagination pagination);
+
+    CompletableFuture<Page<E>> findAllAsync(Pagination pagination, CountMode countMode);
+
+    CompletableFuture<Slice<E>> findSliceAsync(Pagination pagination);
+
+    CompletableFuture<Slice<E>> findAllAsync(Cursor cursor, Sort sort, int size);
+
+    /**
+     * Applies the function to a stream over every entity on the database thread, closing the
+     * stream afterwards. The function must consume the stream; it is not usable once it returns.
+     */
+    <R> CompletableFuture<R> streamAllAsync(Function<Stream<E>, R> function);
+
+    CompletableFuture<List<E>> findAsync(QuerySpecification<E> spec);
+
+    CompletableFuture<List<E>> findAsync(QuerySpecification<E> spec, Sort sort);
+
+    CompletableFuture<Page<E>> findAsync(QuerySpecification<E> spec, Pagination pagination);
+
+    CompletableFuture<Page<E>> findAsync(QuerySpecification<E> spec, Pagination pagination, CountMode countMode);
+
+    CompletableFuture<Slice<E>> findSliceAsync(QuerySpecification<E> spec, Pagination pagination);
+
+    CompletableFuture<Slice<E>> findAsync(QuerySpecification<E> spec, Cursor cursor, Sort sort, int size);
+
+    <R> CompletableFuture<R> streamAsync(QuerySpecification<E> spec, Function<Stream<E>, R> function);
+
+    CompletableFuture<Long> countAsync(QuerySpecification<E> spec);
+
+    CompletableFuture<Boolean> existsAsync(QuerySpecification<E> spec);
+
+    CompletableFuture<Integer> deleteAsync(QuerySpecification<E> spec);
+
+    CompletableFuture<Integer> updateAsync(QuerySpecification<E> spec, UpdateSpecification<E> setter);
+
+    /**
+     * The given future, completed on the main thread instead of the database thread.
+     */
+    <T> CompletableFuture<T> onMainThread(CompletableFuture<T> future);
+
+    /**
+     * Executor running on the main thread, for {@code thenAcceptAsync(consumer, mainThread())}.
+     */
+    Executor mainThread();
+
+}
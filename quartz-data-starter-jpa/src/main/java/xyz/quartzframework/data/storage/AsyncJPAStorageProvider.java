@@ -0,0 +1,32 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import xyz.quartzframework.core.bean.annotation.Injectable;
+import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanMissing;
+import xyz.quartzframework.data.async.DatabaseExecutor;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.query.JPAQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+@Injectable
+@RequiredArgsConstructor
+@ActivateWhenBeanMissing(AsyncJPAStorageProvider.class)
+public class AsyncJPAStorageProvider implements StorageProvider {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CountCache countCache;
+
+    private final DatabaseExecutor databaseExecutor;
+
+    @Override
+    public <E, ID> HibernateAsyncJPAStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        return new HibernateAsyncJPAStorage<>(entityManagerFactory, entity, id, countCache, databaseExecutor);
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        return new JPAQueryExecutor<>(entityManagerFactory, storage.getEntityClass(), countCache);
+    }
+}
@@ -0,0 +1,37 @@
+package xyz.quartzframework.data.storage;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import xyz.quartzframework.data.annotation.SuperStorage;
+import xyz.quartzframework.data.cache.EntityCache;
+import xyz.quartzframework.data.interceptor.TransactionCleanupInterceptor;
+import xyz.quartzframework.data.interceptor.TransactionalInterceptor;
+
+/**
+ * {@link JPAStorage} with a read-through cache of detached entities in front of
+ * {@link #findById}, {@link #findAllById} and {@link #exists}. A cache hit does not open an
+ * EntityManager or take a connection.
+ * <p>
+ * Saves and deletes through this storage invalidate the affected entries, and bulk statements
+ * clear the cache; writes made elsewhere become visible once an entry expires. Cached entities
+ * are shared between callers and their lazy associations cannot be initialized, so treat them as
+ * read-only and {@code save} a changed copy. Size, expiry and eviction come from
+ * {@link EntityCache} on the entity class.
+ */
+@SuperStorage(value = CachingJPAStorageProvider.class, interceptors = {TransactionalInterceptor.class, TransactionCleanupInterceptor.class})
+public interface CachingJPAStorage<E, ID> extends JPAStorage<E, ID> {
+
+    /**
+     * Loads the given ids that are not cached yet in batches, for warmup. Must be called outside
+     * a transaction.
+     *
+     * @return the number of entities loaded
+     */
+    int preload(Iterable<ID> ids);
+
+    void evict(ID id);
+
+    void evictAll();
+
+    CacheStats getCacheStats();
+
+}
@@ -0,0 +1,41 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import xyz.quartzframework.core.bean.annotation.Injectable;
+import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanMissing;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.cache.EntityCache;
+import xyz.quartzframework.data.cache.EvictionPolicy;
+import xyz.quartzframework.data.properties.JPAPersistenceProperties;
+import xyz.quartzframework.data.query.JPAQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+import java.time.Duration;
+
+@Injectable
+@RequiredArgsConstructor
+@ActivateWhenBeanMissing(CachingJPAStorageProvider.class)
+public class CachingJPAStorageProvider implements StorageProvider {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CountCache countCache;
+
+    private final JPAPersistenceProperties jpaProperties;
+
+    @Override
+    public <E, ID> HibernateCachingJPAStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        val settings = entity.getAnnotation(EntityCache.class);
+        val maxSize = settings != null && settings.maxSize() >= 0 ? settings.maxSize() : jpaProperties.getEntityCacheMaxSize();
+        val ttlMillis = settings != null && settings.ttlMillis() >= 0 ? settings.ttlMillis() : jpaProperties.getEntityCacheTtlMillis();
+        val policy = settings != null ? settings.policy() : EvictionPolicy.EXPIRE_AFTER_WRITE;
+        return new HibernateCachingJPAStorage<>(entityManagerFactory, entity, id, countCache, maxSize, Duration.ofMillis(ttlMillis), policy);
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        return new JPAQueryExecutor<>(entityManagerFactory, storage.getEntityClass(), countCache);
+    }
+}
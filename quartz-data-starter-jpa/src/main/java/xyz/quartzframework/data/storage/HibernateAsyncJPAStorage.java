@@ -0,0 +1,225 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.val;
+import xyz.quartzframework.data.async.DatabaseExecutor;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.page.*;
+import xyz.quartzframework.data.specification.QuerySpecification;
+import xyz.quartzframework.data.specification.UpdateSpecification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link HibernateJPAStorage} whose async methods submit the blocking call to a
+ * {@link DatabaseExecutor}.
+ */
+public class HibernateAsyncJPAStorage<E, ID> extends HibernateJPAStorage<E, ID> implements AsyncJPAStorage<E, ID> {
+
+    @Getter
+    private final DatabaseExecutor executor;
+
+    public HibernateAsyncJPAStorage(EntityManagerFactory entityManagerFactory,
+                                    Class<E> entityClass,
+                                    Class<ID> idClass,
+                                    CountCache countCache,
+                                    DatabaseExecutor executor) {
+        super(entityManagerFactory, entityClass, idClass, countCache);
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Optional<E>> findByIdAsync(ID id) {
+        return submit(() -> findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<E>> findAllByIdAsync(Iterable<ID> ids) {
+        return submit(() -> findAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsAsync(ID id) {
+        return submit(() -> exists(id));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsAllByIdAsync(Iterable<ID> ids) {
+        return submit(() -> existsAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<Long> countAsync() {
+        return submit(this::count);
+    }
+
+    @Override
+    public CompletableFuture<E> saveAsync(E entity) {
+        return submit(() -> save(entity));
+    }
+
+    @Override
+    public CompletableFuture<List<E>> saveAsync(Iterable<E> entities) {
+        return submit(() -> save(entities));
+    }
+
+    @Override
+    public CompletableFuture<E> saveAndFlushAsync(E entity) {
+        return submit(() -> saveAndFlush(entity));
+    }
+
+    @Override
+    public CompletableFuture<List<E>> saveAndFlushAsync(Iterable<E> entities) {
+        return submit(() -> saveAndFlush(entities));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteByIdAsync(ID id) {
+        return submit(() -> {
+            deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteAllByIdAsync(Iterable<ID> ids) {
+        return submit(() -> deleteAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(E entity) {
+        return submit(() -> {
+            delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(Iterable<E> entities) {
+        return submit(() -> {
+            delete(entities);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<E>> findAllAsync() {
+        return submit(this::findAll);
+    }
+
+    @Override
+    public CompletableFuture<List<E>> findAllAsync(Sort sort) {
+        return submit(() -> findAll(sort));
+    }
+
+    @Override
+    public CompletableFuture<Page<E>> findAllAsync(Pagination pagination) {
+        return submit(() -> findAll(pagination));
+    }
+
+    @Override
+    public CompletableFuture<Page<E>> findAllAsync(Pagination pagination, CountMode countMode) {
+        return submit(() -> findAll(pagination, countMode));
+    }
+
+    @Override
+    public CompletableFuture<Slice<E>> findSliceAsync(Pagination pagination) {
+        return submit(() -> findSlice(pagination));
+    }
+
+    @Override
+    public CompletableFuture<Slice<E>> findAllAsync(Cursor cursor, Sort sort, int size) {
+        return submit(() -> findAll(cursor, sort, size));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> streamAllAsync(Function<Stream<E>, R> function) {
+        return submit(() -> consume(streamAll(), function));
+    }
+
+    @Override
+    public CompletableFuture<List<E>> findAsync(QuerySpecification<E> spec) {
+        return submit(() -> find(spec));
+    }
+
+    @Override
+    public CompletableFuture<List<E>> findAsync(QuerySpecification<E> spec, Sort sort) {
+        return submit(() -> find(spec, sort));
+    }
+
+    @Override
+    public CompletableFuture<Page<E>> findAsync(QuerySpecification<E> spec, Pagination pagination) {
+        return submit(() -> find(spec, pagination));
+    }
+
+    @Override
+    public CompletableFuture<Page<E>> findAsync(QuerySpecification<E> spec, Pagination pagination, CountMode countMode) {
+        return submit(() -> find(spec, pagination, countMode));
+    }
+
+    @Override
+    public CompletableFuture<Slice<E>> findSliceAsync(QuerySpecification<E> spec, Pagination pagination) {
+        return submit(() -> findSlice(spec, pagination));
+    }
+
+    @Override
+    public CompletableFuture<Slice<E>> findAsync(QuerySpecification<E> spec, Cursor cursor, Sort sort, int size) {
+        return submit(() -> find(spec, cursor, sort, size));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> streamAsync(QuerySpecification<E> spec, Function<Stream<E>, R> function) {
+        return submit(() -> consume(stream(spec), function));
+    }
+
+    @Override
+    public CompletableFuture<Long> countAsync(QuerySpecification<E> spec) {
+        return submit(() -> count(spec));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsAsync(QuerySpecification<E> spec) {
+        return submit(() -> exists(spec));
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteAsync(QuerySpecification<E> spec) {
+        return submit(() -> delete(spec));
+    }
+
+    @Override
+    public CompletableFuture<Integer> updateAsync(QuerySpecification<E> spec, UpdateSpecification<E> setter) {
+        return submit(() -> update(spec, setter));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> onMainThread(CompletableFuture<T> future) {
+        return executor.onMainThread(future);
+    }
+
+    @Override
+    public Executor mainThread() {
+        val mainThread = executor.getMainThreadExecutor();
+        if (mainThread == null) {
+            throw new IllegalStateException("No main thread executor available");
+        }
+        return mainThread;
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> callable) {
+        return executor.submit(callable);
+    }
+
+    private static <E, R> R consume(Stream<E> stream, Function<Stream<E>, R> function) {
+        try (stream) {
+            return function.apply(stream);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package xyz.quartzframework.data.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.cache.EvictionPolicy;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.routing.RoutingContext;
+import xyz.quartzframework.data.specification.QuerySpecification;
+import xyz.quartzframework.data.specification.UpdateSpecification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@link HibernateJPAStorage} with a Caffeine cache of detached entities keyed by id.
+ * <p>
+ * Inside a transaction reads bypass the cache, since cached instances are shared and entities
+ * loaded there stay attached to the caller's EntityManager. Outside one, entities are loaded from
+ * the primary, so a lagging replica cannot fill the cache with old state. Entries are invalidated
+ * once the write returns, even when it fails, since the entity may have been changed in place, and
+ * again when the surrounding transaction completes, dropping anything a concurrent read cached
+ * before the write was committed.
+ */
+public class HibernateCachingJPAStorage<E, ID> extends HibernateJPAStorage<E, ID> implements CachingJPAStorage<E, ID> {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Cache<Object, E> cache;
+
+    /**
+     * Bumped before every invalidation, so a bulk load can tell whether an invalidation raced it.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public HibernateCachingJPAStorage(EntityManagerFactory entityManagerFactory,
+                                      Class<E> entityClass,
+                                      Class<ID> idClass,
+                                      CountCache countCache,
+                                      long maxSize,
+                                      Duration ttl,
+                                      EvictionPolicy policy) {
+        super(entityManagerFactory, entityClass, idClass, countCache);
+        this.entityManagerFactory = entityManagerFactory;
+        val builder = Caffeine.newBuilder().maximumSize(maxSize).recordStats();
+        switch (policy) {
+            case EXPIRE_AFTER_WRITE -> builder.expireAfterWrite(ttl);
+            case EXPIRE_AFTER_ACCESS -> builder.expireAfterAccess(ttl);
+            case SIZE_ONLY -> {
+            }
+        }
+        this.cache = builder.build();
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        if (EntityManagerContext.get() != null) return super.findById(id);
+        return Optional.ofNullable(cache.get(id, key -> fromPrimary(() -> super.findById(id).orElse(null))));
+    }
+
+    @Override
+    public List<E> findAllById(Iterable<ID> ids) {
+        if (EntityManagerContext.get() != null) return super.findAllById(ids);
+        val distinct = new LinkedHashSet<ID>();
+        ids.forEach(distinct::add);
+        val cached = cache.getAllPresent(distinct);
+        if (cached.size() == distinct.size()) {
+            return distinct.stream().map(cached::get).toList();
+        }
+        val missing = distinct.stream().filter(id -> !cached.containsKey(id)).toList();
+        val loaded = new HashMap<Object, E>(cached);
+        loaded.putAll(load(missing));
+        val result = new ArrayList<E>(loaded.size());
+        for (val id : distinct) {
+            val entity = loaded.get(id);
+            if (entity != null) result.add(entity);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        if (EntityManagerContext.get() != null) return super.exists(id);
+        return cache.getIfPresent(id) != null || super.exists(id);
+    }
+
+    @Override
+    public E save(E entity) {
+        try {
+            return super.save(entity);
+        } finally {
+            invalidate(idOf(entity));
+        }
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        try {
+            return super.save(entities);
+        } finally {
+            invalidateEntities(entities);
+        }
+    }
+
+    @Override
+    public E saveAndFlush(E entity) {
+        try {
+            return super.saveAndFlush(entity);
+        } finally {
+            invalidate(idOf(entity));
+        }
+    }
+
+    @Override
+    public List<E> saveAndFlush(Iterable<E> entities) {
+        try {
+            return super.saveAndFlush(entities);
+        } finally {
+            invalidateEntities(entities);
+        }
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        try {
+            super.deleteById(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Iterable<ID> ids) {
+        try {
+            return super.deleteAllById(ids);
+        } finally {
+            val keys = new ArrayList<Object>();
+            ids.forEach(keys::add);
+            invalidate(keys);
+        }
+    }
+
+    @Override
+    public void delete(E entity) {
+        try {
+            super.delete(entity);
+        } finally {
+            invalidate(idOf(entity));
+        }
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        try {
+            super.delete(entities);
+        } finally {
+            invalidateEntities(entities);
+        }
+    }
+
+    @Override
+    public int delete(QuerySpecification<E> spec) {
+        try {
+            return super.delete(spec);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int update(QuerySpecification<E> spec, UpdateSpecification<E> setter) {
+        try {
+            return super.update(spec, setter);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int preload(Iterable<ID> ids) {
+        if (EntityManagerContext.get() != null) {
+            throw new IllegalStateException("preload must be called outside a transaction");
+        }
+        val missing = new ArrayList<ID>();
+        for (ID id : ids) {
+            if (cache.getIfPresent(id) == null) missing.add(id);
+        }
+        if (missing.isEmpty()) return 0;
+        return load(missing).size();
+    }
+
+    @Override
+    public void evict(ID id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    public long getCacheSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Loads the entities from the primary and caches them, unless an invalidation ran meanwhile:
+     * the load may then have read a row from before that write committed. Caching first and
+     * checking after leaves no gap, since an invalidation bumps the counter before it evicts.
+     */
+    private Map<Object, E> load(List<ID> ids) {
+        val generation = invalidations.get();
+        val loaded = new HashMap<Object, E>();
+        for (E entity : fromPrimary(() -> super.findAllById(ids))) {
+            loaded.put(idOf(entity), entity);
+        }
+        cache.putAll(loaded);
+        if (invalidations.get() != generation) cache.invalidateAll(loaded.keySet());
+        return loaded;
+    }
+
+    private <T> T fromPrimary(Supplier<T> load) {
+        return RoutingContext.call(RoutingContext.Route.PRIMARY, load);
+    }
+
+    private void invalidate(@Nullable Object id) {
+        if (id != null) invalidate(List.of(id));
+    }
+
+    private void invalidateEntities(Iterable<E> entities) {
+        val ids = new ArrayList<Object>();
+        for (E entity : entities) {
+            val id = idOf(entity);
+            if (id != null) ids.add(id);
+        }
+        invalidate(ids);
+    }
+
+    /**
+     * Evicts the ids now and again once the surrounding transaction, if any, completes.
+     */
+    private void invalidate(List<Object> ids) {
+        Runnable eviction = () -> {
+            invalidations.incrementAndGet();
+            cache.invalidateAll(ids);
+        };
+        eviction.run();
+        if (EntityManagerContext.get() != null) EntityManagerContext.afterCompletion(eviction);
+    }
+
+    private void invalidateAll() {
+        Runnable eviction = () -> {
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        };
+        eviction.run();
+        if (EntityManagerContext.get() != null) EntityManagerContext.afterCompletion(eviction);
+    }
+
+    private Object idOf(E entity) {
+        return entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+    }
+}
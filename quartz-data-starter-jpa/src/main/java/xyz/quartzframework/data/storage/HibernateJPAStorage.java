@@ -2,23 +2,54 @@ package xyz.quartzframework.data.storage;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.Assigned;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.helper.CriteriaHelper;
+import xyz.quartzframework.data.helper.KeysetHelper;
+import xyz.quartzframework.data.helper.PagingHelper;
+import xyz.quartzframework.data.helper.ScrollHelper;
+import xyz.quartzframework.data.manager.EntityManagerCallback;
 import xyz.quartzframework.data.manager.EntityManagerContext;
-import xyz.quartzframework.data.page.Page;
-import xyz.quartzframework.data.page.Pagination;
-import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.metrics.Histogram;
+import xyz.quartzframework.data.page.*;
 import xyz.quartzframework.data.specification.QuerySpecification;
 import xyz.quartzframework.data.specification.QuerySpecificationExecutor;
+import xyz.quartzframework.data.specification.UpdateSpecification;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpecificationExecutor<E> {
 
+    public static final String MULTI_LOAD_BATCH_SIZE = "quartz.data.hibernate.multi-load.batch-size";
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final Object FIND_ALL = "findAll";
+
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final int MAX_IN_CHUNK_SIZE = 1000;
+
     private final EntityManagerFactory entityManagerFactory;
 
     @Getter
@@ -27,11 +58,54 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
     @Getter
     private final Class<ID> idClass;
 
+    private final CountCache countCache;
+
+    /**
+     * Entities written per flush by {@link #save(Iterable)} and {@link #saveAndFlush(Iterable)}.
+     */
+    @Getter
+    private final Histogram batchSizes = new Histogram();
+
+    public HibernateJPAStorage(EntityManagerFactory entityManagerFactory, Class<E> entityClass, Class<ID> idClass) {
+        this(entityManagerFactory, entityClass, idClass, new CountCache(Duration.ofSeconds(30), 1024));
+    }
+
     @Override
     public Optional<E> findById(ID id) {
         return execute(em -> Optional.ofNullable(em.find(entityClass, id)));
     }
 
+    @Override
+    public List<E> findAllById(Iterable<ID> ids) {
+        val distinct = distinct(ids);
+        if (distinct.isEmpty()) return List.of();
+        return execute(em -> {
+            val loaded = em.unwrap(Session.class)
+                    .byMultipleIds(entityClass)
+                    .withBatchSize(multiLoadBatchSize(em))
+                    .enableSessionCheck(true)
+                    .multiLoad(distinct);
+            return loaded.stream().filter(Objects::nonNull).toList();
+        });
+    }
+
+    @Override
+    public boolean existsAllById(Iterable<ID> ids) {
+        val distinct = distinct(ids);
+        if (distinct.isEmpty()) return true;
+        val idAttribute = KeysetHelper.idAttribute(entityManagerFactory, entityClass);
+        return execute(em -> {
+            val cb = em.getCriteriaBuilder();
+            for (val chunk : chunks(em, distinct)) {
+                val query = cb.createQuery(Long.class);
+                val root = query.from(entityClass);
+                query.select(cb.count(root)).where(root.get(idAttribute).in(chunk));
+                if (em.createQuery(query).getSingleResult() < chunk.size()) return false;
+            }
+            return true;
+        });
+    }
+
     @Override
     public long count() {
         return execute(em -> {
@@ -55,16 +129,7 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
 
     @Override
     public List<E> save(Iterable<E> entities) {
-        return executeInTransaction(em -> {
-            List<E> saved = new ArrayList<>();
-            int i = 0;
-            for (E entity : entities) {
-                em.merge(entity);
-                saved.add(entity);
-                if (++i % 50 == 0) em.flush();
-            }
-            return saved;
-        });
+        return executeInTransaction(em -> saveBatched(em, entities));
     }
 
     @Override
@@ -76,6 +141,11 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
         });
     }
 
+    @Override
+    public int deleteAllById(Iterable<ID> ids) {
+        return executeInTransaction(em -> deleteIn(em, distinct(ids)));
+    }
+
     @Override
     public void delete(E entity) {
         executeInTransaction(em -> {
@@ -123,19 +193,47 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
         });
     }
 
+    @Override
+    public Stream<E> streamAll() {
+        return ScrollHelper.stream(entityManagerFactory, em -> em.createQuery("from " + entityClass.getSimpleName(), entityClass));
+    }
+
     @Override
     public Page<E> findAll(Pagination pagination) {
+        return findAll(pagination, CountMode.EXACT);
+    }
+
+    @Override
+    public Page<E> findAll(Pagination pagination, CountMode countMode) {
         return execute(em -> {
             String jpql = "from " + entityClass.getSimpleName();
             val query = em.createQuery(jpql, entityClass);
             query.setFirstResult((pagination.page() - 1) * pagination.size());
-            query.setMaxResults(pagination.size());
-            List<E> content = query.getResultList();
-            long total = count();
-            return Page.of(content, pagination.page(), pagination.size(), total);
+            query.setMaxResults(PagingHelper.fetchSize(pagination, countMode));
+            List<E> rows = query.getResultList();
+            String countJpql = "select count(e) from " + entityClass.getSimpleName() + " e";
+            long total = total(countMode, pagination, rows.size(), FIND_ALL,
+                    () -> em.createQuery(countJpql, Long.class).getSingleResult());
+            return Page.of(PagingHelper.content(rows, pagination.size()), pagination.page(), pagination.size(), total);
         });
     }
 
+    @Override
+    public Slice<E> findSlice(Pagination pagination) {
+        return execute(em -> {
+            String jpql = "from " + entityClass.getSimpleName();
+            val query = em.createQuery(jpql, entityClass);
+            query.setFirstResult((pagination.page() - 1) * pagination.size());
+            query.setMaxResults(pagination.size() + 1);
+            return PagingHelper.slice(query.getResultList(), pagination.size());
+        });
+    }
+
+    @Override
+    public Slice<E> findAll(Cursor cursor, Sort sort, int size) {
+        return seek(null, cursor, sort, size);
+    }
+
     @Override
     public void flush() {
         executeInTransaction(em -> {
@@ -146,15 +244,7 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
 
     @Override
     public List<E> saveAndFlush(Iterable<E> entities) {
-        return executeInTransaction(em -> {
-            List<E> saved = new ArrayList<>();
-            for (E entity : entities) {
-                em.merge(entity);
-                saved.add(entity);
-            }
-            em.flush();
-            return saved;
-        });
+        return executeInTransaction(em -> saveBatched(em, entities));
     }
 
     @Override
@@ -199,6 +289,11 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
 
     @Override
     public Page<E> find(QuerySpecification<E> spec, Pagination pagination) {
+        return find(spec, pagination, CountMode.EXACT);
+    }
+
+    @Override
+    public Page<E> find(QuerySpecification<E> spec, Pagination pagination, CountMode countMode) {
         return execute(em -> {
             val cb = em.getCriteriaBuilder();
             val query = cb.createQuery(entityClass);
@@ -207,14 +302,45 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
             query.where(predicate);
             val jpaQuery = em.createQuery(query);
             jpaQuery.setFirstResult((pagination.page() - 1) * pagination.size());
-            jpaQuery.setMaxResults(pagination.size());
-            List<E> content = jpaQuery.getResultList();
-
+            jpaQuery.setMaxResults(PagingHelper.fetchSize(pagination, countMode));
+            List<E> rows = jpaQuery.getResultList();
             val countQuery = cb.createQuery(Long.class);
             val countRoot = countQuery.from(entityClass);
             countQuery.select(cb.count(countRoot)).where(spec.toPredicate(countRoot, countQuery, cb));
-            long total = em.createQuery(countQuery).getSingleResult();
-            return Page.of(content, pagination.page(), pagination.size(), total);
+            val countKey = countMode == CountMode.CACHED ? CriteriaHelper.identity(countQuery) : null;
+            long total = total(countMode, pagination, rows.size(), countKey,
+                    () -> em.createQuery(countQuery).getSingleResult());
+            return Page.of(PagingHelper.content(rows, pagination.size()), pagination.page(), pagination.size(), total);
+        });
+    }
+
+    @Override
+    public Slice<E> findSlice(QuerySpecification<E> spec, Pagination pagination) {
+        return execute(em -> {
+            val cb = em.getCriteriaBuilder();
+            val query = cb.createQuery(entityClass);
+            val root = query.from(entityClass);
+            query.where(spec.toPredicate(root, query, cb));
+            val jpaQuery = em.createQuery(query);
+            jpaQuery.setFirstResult((pagination.page() - 1) * pagination.size());
+            jpaQuery.setMaxResults(pagination.size() + 1);
+            return PagingHelper.slice(jpaQuery.getResultList(), pagination.size());
+        });
+    }
+
+    @Override
+    public Slice<E> find(QuerySpecification<E> spec, Cursor cursor, Sort sort, int size) {
+        return seek(spec, cursor, sort, size);
+    }
+
+    @Override
+    public Stream<E> stream(QuerySpecification<E> spec) {
+        return ScrollHelper.stream(entityManagerFactory, em -> {
+            val cb = em.getCriteriaBuilder();
+            val query = cb.createQuery(entityClass);
+            val root = query.from(entityClass);
+            query.where(spec.toPredicate(root, query, cb));
+            return em.createQuery(query);
         });
     }
 
@@ -240,48 +366,243 @@ public class HibernateJPAStorage<E, ID> implements JPAStorage<E, ID>, QuerySpeci
         });
     }
 
-    private EntityManager getEntityManager() {
-        EntityManager em = EntityManagerContext.get();
-        if (em != null && em.isOpen()) {
-            return em;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Slice<E> seek(@Nullable QuerySpecification<E> spec, Cursor cursor, Sort sort, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Slice size must be positive: " + size);
+        val keys = KeysetHelper.keys(sort, KeysetHelper.idAttribute(entityManagerFactory, entityClass));
+        return execute(em -> {
+            val cb = em.getCriteriaBuilder();
+            val query = cb.createQuery(entityClass);
+            val root = query.from(entityClass);
+            val predicates = new ArrayList<Predicate>();
+            if (spec != null) {
+                val predicate = spec.toPredicate(root, query, cb);
+                if (predicate != null) predicates.add(predicate);
+            }
+            if (!cursor.isFirst()) {
+                val values = cursor.values(KeysetHelper.signature(keys));
+                val seek = new Predicate[keys.size()];
+                for (int i = 0; i < keys.size(); i++) {
+                    val and = new Predicate[i + 1];
+                    for (int j = 0; j < i; j++) {
+                        and[j] = cb.equal(root.get(keys.get(j).property()), values[j]);
+                    }
+                    Expression path = root.get(keys.get(i).property());
+                    Comparable value = (Comparable) values[i];
+                    and[i] = keys.get(i).descending() ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+                    seek[i] = cb.and(and);
+                }
+                predicates.add(cb.or(seek));
+            }
+            query.where(predicates.toArray(Predicate[]::new));
+            query.orderBy(keys.stream()
+                    .map(key -> key.descending() ? cb.desc(root.get(key.property())) : cb.asc(root.get(key.property())))
+                    .toList());
+            val rows = em.createQuery(query).setMaxResults(size + 1).getResultList();
+            return KeysetHelper.slice(rows, size, keys);
+        });
+    }
+
+    /**
+     * Deletes with one {@code CriteriaDelete} built from the specification's predicate. Paths
+     * through associations are rendered by Hibernate as subqueries, but bulk statements cannot
+     * join, so a specification that joins explicitly falls back to selecting the matching ids and
+     * deleting them in chunked {@code IN} lists.
+     */
+    @Override
+    public int delete(QuerySpecification<E> spec) {
+        return executeInTransaction(em -> {
+            val cb = em.getCriteriaBuilder();
+            val ids = idQuery(cb, spec);
+            if (joins(ids)) {
+                return deleteIn(em, em.createQuery(ids).getResultList());
+            }
+            val delete = cb.createCriteriaDelete(entityClass);
+            val predicate = spec.toPredicate(delete.from(entityClass), ids, cb);
+            if (predicate != null) delete.where(predicate);
+            return em.createQuery(delete).executeUpdate();
+        });
+    }
+
+    /**
+     * Updates with one {@code CriteriaUpdate} built from the specification's predicate, falling
+     * back to chunked {@code IN} lists of the matching ids when the specification joins, as
+     * {@link #delete(QuerySpecification)} does.
+     */
+    @Override
+    public int update(QuerySpecification<E> spec, UpdateSpecification<E> setter) {
+        return executeInTransaction(em -> {
+            val cb = em.getCriteriaBuilder();
+            val ids = idQuery(cb, spec);
+            if (joins(ids)) {
+                return updateIn(em, em.createQuery(ids).getResultList(), setter);
+            }
+            val update = cb.createCriteriaUpdate(entityClass);
+            val root = update.from(entityClass);
+            setter.apply(root, update, cb);
+            val predicate = spec.toPredicate(root, ids, cb);
+            if (predicate != null) update.where(predicate);
+            return em.createQuery(update).executeUpdate();
+        });
+    }
+
+    /**
+     * Selects the ids of the rows matching a specification. Bulk statements use it to find out
+     * whether the specification joins, and run it when it does.
+     */
+    private CriteriaQuery<Object> idQuery(CriteriaBuilder cb, QuerySpecification<E> spec) {
+        val query = cb.createQuery(Object.class);
+        val root = query.from(entityClass);
+        query.select(root.get(KeysetHelper.idAttribute(entityManagerFactory, entityClass)));
+        val predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        return query;
+    }
+
+    private static boolean joins(CriteriaQuery<?> query) {
+        return query.getRoots().stream().anyMatch(root -> !root.getJoins().isEmpty() || !root.getFetches().isEmpty());
+    }
+
+    private int updateIn(EntityManager em, List<?> ids, UpdateSpecification<E> setter) {
+        val idAttribute = KeysetHelper.idAttribute(entityManagerFactory, entityClass);
+        val cb = em.getCriteriaBuilder();
+        int updated = 0;
+        for (val chunk : chunks(em, ids)) {
+            val update = cb.createCriteriaUpdate(entityClass);
+            val root = update.from(entityClass);
+            setter.apply(root, update, cb);
+            update.where(root.get(idAttribute).in(chunk));
+            updated += em.createQuery(update).executeUpdate();
         }
-        return entityManagerFactory.createEntityManager();
+        return updated;
     }
 
-    private boolean outOfTransactionalEntityManager(EntityManager em) {
-        EntityManager ctx = EntityManagerContext.get();
-        return ctx == null || ctx != em;
+    private int deleteIn(EntityManager em, List<?> ids) {
+        val idAttribute = KeysetHelper.idAttribute(entityManagerFactory, entityClass);
+        val cb = em.getCriteriaBuilder();
+        int deleted = 0;
+        for (val chunk : chunks(em, ids)) {
+            val delete = cb.createCriteriaDelete(entityClass);
+            val root = delete.from(entityClass);
+            delete.where(root.get(idAttribute).in(chunk));
+            deleted += em.createQuery(delete).executeUpdate();
+        }
+        return deleted;
     }
 
-    private <T> T execute(EntityManagerCallback<T> callback) {
-        val em = getEntityManager();
-        try {
-            return callback.call(em);
-        } finally {
-            if (outOfTransactionalEntityManager(em) && em.isOpen()) em.close();
+    /**
+     * Splits ids into IN lists the dialect accepts, capped at {@value #MAX_IN_CHUNK_SIZE} to stay
+     * under driver bind parameter limits.
+     */
+    private <T> List<List<T>> chunks(EntityManager em, List<T> ids) {
+        val chunkSize = inChunkSize(em);
+        val chunks = new ArrayList<List<T>>();
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + chunkSize)));
         }
+        return chunks;
     }
 
-    private <T> T executeInTransaction(EntityManagerCallback<T> callback) {
-        val em = getEntityManager();
-        val tx = em.getTransaction();
-        boolean newTransaction = !tx.isActive();
-        if (newTransaction) tx.begin();
-        try {
-            T result = callback.call(em);
-            if (newTransaction) tx.commit();
-            return result;
-        } catch (Exception e) {
-            if (newTransaction && tx.isActive()) tx.rollback();
-            throw new RuntimeException(e);
-        } finally {
-            if (outOfTransactionalEntityManager(em) && em.isOpen()) em.close();
+    private int multiLoadBatchSize(EntityManager em) {
+        val configured = entityManagerFactory.getProperties().get(MULTI_LOAD_BATCH_SIZE);
+        val batchSize = configured == null ? 0 : Integer.parseInt(configured.toString());
+        val inLimit = inChunkSize(em);
+        return batchSize > 0 ? Math.min(batchSize, inLimit) : inLimit;
+    }
+
+    private int inChunkSize(EntityManager em) {
+        val limit = em.unwrap(SessionImplementor.class).getFactory().getJdbcServices().getDialect().getInExpressionCountLimit();
+        return limit > 0 ? Math.min(limit, MAX_IN_CHUNK_SIZE) : MAX_IN_CHUNK_SIZE;
+    }
+
+    private static <T> List<T> distinct(Iterable<T> values) {
+        val distinct = new LinkedHashSet<T>();
+        values.forEach(distinct::add);
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Writes entities in JDBC-batch sized chunks. Each chunk loads the already persistent ids in one
+     * query, persists new entities, merges detached ones, then flushes. The persistence context is
+     * cleared after each chunk unless it belongs to the caller's transaction.
+     */
+    private List<E> saveBatched(EntityManager em, Iterable<E> entities) {
+        val batchSize = batchSize();
+        val clear = EntityManagerContext.get() != em;
+        val saved = new ArrayList<E>();
+        val batch = new ArrayList<E>(batchSize);
+        for (E entity : entities) {
+            saved.add(entity);
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                writeBatch(em, batch, clear);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) writeBatch(em, batch, clear);
+        return saved;
+    }
+
+    private void writeBatch(EntityManager em, List<E> batch, boolean clear) {
+        val util = entityManagerFactory.getPersistenceUnitUtil();
+        val session = em.unwrap(SessionImplementor.class);
+        val ids = new ArrayList<Object>(batch.size());
+        for (E entity : batch) {
+            val id = util.getIdentifier(entity);
+            if (id != null && !em.contains(entity)) ids.add(id);
         }
+        val persistent = new HashSet<>();
+        if (!ids.isEmpty()) {
+            for (E found : session.byMultipleIds(entityClass).multiLoad(ids)) {
+                if (found != null) persistent.add(util.getIdentifier(found));
+            }
+        }
+        val assignedIds = session.getEntityPersister(null, batch.get(0)).getGenerator() instanceof Assigned;
+        for (E entity : batch) {
+            if (em.contains(entity)) continue;
+            val id = util.getIdentifier(entity);
+            if (id == null || (assignedIds && !persistent.contains(id))) {
+                em.persist(entity);
+            } else {
+                em.merge(entity);
+            }
+        }
+        em.flush();
+        batchSizes.record(batch.size());
+        if (clear) em.clear();
     }
 
-    private interface EntityManagerCallback<T> {
+    private int batchSize() {
+        val configured = entityManagerFactory.getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        val batchSize = configured == null ? 0 : Integer.parseInt(configured.toString());
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
 
-        T call(EntityManager em);
+    /**
+     * Total for a page fetched with {@link PagingHelper#fetchSize}. Cached counts of
+     * specifications are keyed by the {@link CriteriaHelper#identity identity} of their count
+     * query, and counted exactly when it has none.
+     */
+    private long total(CountMode countMode, Pagination pagination, int fetched, @Nullable Object query, LongSupplier counter) {
+        return switch (countMode) {
+            case EXACT -> counter.getAsLong();
+            case CACHED -> query == null ? counter.getAsLong() : countCache.get(entityClass, query, NO_ARGS, counter);
+            case NONE -> PagingHelper.lowerBoundTotal(pagination, fetched);
+        };
+    }
 
+    private <T> T execute(EntityManagerCallback<T> callback) {
+        return EntityManagerContext.execute(entityManagerFactory, callback);
+    }
+
+    private <T> T executeInTransaction(EntityManagerCallback<T> callback) {
+        try {
+            return EntityManagerContext.executeInTransaction(entityManagerFactory, callback);
+        } finally {
+            countCache.invalidate(entityClass);
+            if (EntityManagerContext.inTransaction()) {
+                EntityManagerContext.afterCompletion(() -> countCache.invalidate(entityClass));
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,540 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.metrics.Histogram;
+import xyz.quartzframework.data.specification.QuerySpecification;
+import xyz.quartzframework.data.specification.UpdateSpecification;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * {@link HibernateJPAStorage} with a write-behind buffer keyed by entity id.
+ * <p>
+ * Once the buffer holds {@code maxPending} entities, {@code save} writes it on the calling thread,
+ * which slows producers down to the database's pace instead of growing the buffer. Deletes and bulk
+ * statements run with flushes locked out, so a buffered entity cannot be written over a delete.
+ * The buffer holds a copy of each saved entity, so changes made to an instance after saving it are
+ * not written until it is saved again. A flush writes the buffer in a transaction of its own, even
+ * when it runs on a thread inside a transaction, so rolling that transaction back does not lose
+ * buffered saves. When a batch fails its entities are retried one per transaction, so a single
+ * bad row does not hold back the rest; an entity that keeps failing is dropped after
+ * {@value #MAX_ATTEMPTS} flushes. A connection failure re-queues the whole batch instead.
+ * <p>
+ * Versioned entities are not supported: the caller's instance never sees the version a flush
+ * writes, so the next buffered copy would fail its optimistic lock check.
+ * <p>
+ * With a journal directory the latest buffered copy of each entity is appended to a local journal
+ * every {@code journalInterval} from the scheduler thread, and deletes are journaled before they
+ * run. The journal is replayed on the next start if the server stops before the buffer is written;
+ * saves made within the last {@code journalInterval} before a crash can be lost. A zero interval
+ * journals every save on the saving thread.
+ */
+@Slf4j
+public class HibernateWriteBehindJPAStorage<E, ID> extends HibernateJPAStorage<E, ID> implements WriteBehindJPAStorage<E, ID> {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final EntityPersister persister;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final int flushThreshold;
+
+    private final int maxPending;
+
+    @Nullable
+    private final WriteBehindJournal journal;
+
+    private final Map<Object, E> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Latest copy or {@link Tombstone} per id not yet appended to the journal.
+     */
+    private final Map<Object, Object> unjournaled = new ConcurrentHashMap<>();
+
+    /**
+     * Failed writes per id, for entities that failed on their own rather than with their batch.
+     */
+    private final Map<Object, Integer> attempts = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder bufferedCount = new LongAdder();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    @Getter
+    private final Histogram flushLatencyMillis = new Histogram();
+
+    @Nullable
+    private final ScheduledFuture<?> flushTask;
+
+    @Nullable
+    private final ScheduledFuture<?> journalTask;
+
+    private volatile boolean closed;
+
+    public HibernateWriteBehindJPAStorage(EntityManagerFactory entityManagerFactory,
+                                          Class<E> entityClass,
+                                          Class<ID> idClass,
+                                          CountCache countCache,
+                                          ScheduledExecutorService scheduler,
+                                          Duration flushInterval,
+                                          int flushThreshold,
+                                          int maxPending,
+                                          @Nullable Path journalDirectory,
+                                          Duration journalInterval) {
+        super(entityManagerFactory, entityClass, idClass, countCache);
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (persister.isVersioned()) {
+            throw new IllegalArgumentException("Write-behind storage does not support versioned entity "
+                    + entityClass.getName());
+        }
+        this.scheduler = scheduler;
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.maxPending = Math.max(this.flushThreshold, maxPending);
+        this.journal = journalDirectory == null ? null : journal(journalDirectory, entityClass);
+        if (journal != null) replay();
+        val interval = flushInterval.toMillis();
+        this.flushTask = interval > 0
+                ? scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS)
+                : null;
+        val journalMillis = journalInterval.toMillis();
+        this.journalTask = journal != null && journalMillis > 0
+                ? scheduler.scheduleWithFixedDelay(this::journalQuietly, journalMillis, journalMillis, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        val buffered = pending.get(id);
+        return buffered != null ? Optional.of(copy(buffered, id)) : super.findById(id);
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        return pending.containsKey(id) || super.exists(id);
+    }
+
+    @Override
+    public E save(E entity) {
+        val id = idOf(entity);
+        if (id == null || closed) return super.save(entity);
+        buffer(id, entity);
+        afterBuffer();
+        return entity;
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        val saved = new ArrayList<E>();
+        val direct = new ArrayList<E>();
+        for (E entity : entities) {
+            val id = idOf(entity);
+            if (id == null || closed) {
+                direct.add(entity);
+            } else {
+                buffer(id, entity);
+            }
+            saved.add(entity);
+        }
+        if (!direct.isEmpty()) super.save(direct);
+        afterBuffer();
+        return saved;
+    }
+
+    /**
+     * Buffers the entity, then writes the whole buffer.
+     */
+    @Override
+    public E saveAndFlush(E entity) {
+        val id = idOf(entity);
+        if (id == null) return super.saveAndFlush(entity);
+        buffer(id, entity);
+        flushPending();
+        return entity;
+    }
+
+    /**
+     * Buffers the entities, then writes the whole buffer.
+     */
+    @Override
+    public List<E> saveAndFlush(Iterable<E> entities) {
+        val saved = new ArrayList<E>();
+        val direct = new ArrayList<E>();
+        for (E entity : entities) {
+            val id = idOf(entity);
+            if (id == null) {
+                direct.add(entity);
+            } else {
+                buffer(id, entity);
+            }
+            saved.add(entity);
+        }
+        if (!direct.isEmpty()) super.saveAndFlush(direct);
+        flushPending();
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+        flushPending();
+        super.flush();
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        withFlushLock(() -> {
+            discard(id);
+            super.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteAllById(Iterable<ID> ids) {
+        return withFlushLock(() -> {
+            ids.forEach(this::discard);
+            return super.deleteAllById(ids);
+        });
+    }
+
+    @Override
+    public void delete(E entity) {
+        withFlushLock(() -> {
+            discard(idOf(entity));
+            super.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        withFlushLock(() -> {
+            entities.forEach(entity -> discard(idOf(entity)));
+            super.delete(entities);
+            return null;
+        });
+    }
+
+    /**
+     * Writes the buffer first, so the statement sees every buffered change.
+     */
+    @Override
+    public int delete(QuerySpecification<E> spec) {
+        return withFlushLock(() -> {
+            flushPending();
+            return super.delete(spec);
+        });
+    }
+
+    /**
+     * Writes the buffer first, so buffered entities cannot overwrite the update later.
+     */
+    @Override
+    public int update(QuerySpecification<E> spec, UpdateSpecification<E> setter) {
+        return withFlushLock(() -> {
+            flushPending();
+            return super.update(spec, setter);
+        });
+    }
+
+    /**
+     * Writes the buffer in a transaction of its own. Journal segments sealed before draining the
+     * buffer are discarded only once every entity is written, dropped or journaled again.
+     */
+    @Override
+    public int flushPending() {
+        flushLock.lock();
+        try {
+            val sealed = journal != null ? journal.rotate() : -1L;
+            if (pending.isEmpty()) {
+                if (journal != null) journal.discard(sealed);
+                return 0;
+            }
+            val batch = new LinkedHashMap<Object, E>(pending.size());
+            for (val id : pending.keySet()) {
+                val entity = pending.remove(id);
+                if (entity != null) batch.put(id, entity);
+            }
+            val startedAt = System.nanoTime();
+            val written = write(batch);
+            flushLatencyMillis.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            writtenCount.add(written);
+            if (journal != null) journal.discard(sealed);
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public double getCoalescingRatio() {
+        val written = writtenCount.sum();
+        return written == 0 ? 1.0 : (double) bufferedCount.sum() / written;
+    }
+
+    public long getBufferedCount() {
+        return bufferedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Stops the interval flush and writes what is left, journaling whatever could not be written.
+     * Later saves are written immediately.
+     */
+    public void close() {
+        closed = true;
+        if (flushTask != null) flushTask.cancel(false);
+        if (journalTask != null) journalTask.cancel(false);
+        flushQuietly();
+        if (journal != null) {
+            journalQuietly();
+            journal.close();
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction, or one entity per transaction when that fails. Entities
+     * failing on their own go back into the buffer and the journal until they have failed
+     * {@link #MAX_ATTEMPTS} times; a connection failure puts back everything not yet written and
+     * is rethrown, leaving the sealed journal segments in place.
+     *
+     * @return the number of entities written
+     */
+    private int write(Map<Object, E> batch) {
+        try {
+            EntityManagerContext.suspend(() -> super.saveAndFlush(new ArrayList<>(batch.values())));
+            batch.forEach(this::written);
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (isConnectionFailure(e)) {
+                batch.forEach(pending::putIfAbsent);
+                throw e;
+            }
+            if (batch.size() == 1) {
+                batch.forEach((id, entity) -> retry(id, entity, e));
+                return 0;
+            }
+            log.warn("Could not write {} buffered {} entities in one batch, writing them one at a time",
+                    batch.size(), getEntityClass().getSimpleName(), e);
+        }
+        int written = 0;
+        val entries = new ArrayList<>(batch.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            val id = entries.get(i).getKey();
+            val entity = entries.get(i).getValue();
+            try {
+                EntityManagerContext.suspend(() -> super.saveAndFlush(entity));
+                written(id, entity);
+                written++;
+            } catch (RuntimeException e) {
+                if (isConnectionFailure(e)) {
+                    entries.subList(i, entries.size()).forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+                    throw e;
+                }
+                retry(id, entity, e);
+            }
+        }
+        return written;
+    }
+
+    private void written(Object id, E entity) {
+        attempts.remove(id);
+        if (journal != null) unjournaled.remove(id, entity);
+    }
+
+    private void retry(Object id, E entity, RuntimeException failure) {
+        val failures = attempts.merge(id, 1, Integer::sum);
+        if (failures >= MAX_ATTEMPTS) {
+            attempts.remove(id);
+            log.error("Dropping buffered {} {} after {} failed writes", getEntityClass().getSimpleName(), id, failures, failure);
+            return;
+        }
+        log.warn("Could not write buffered {} {}, retrying on the next flush", getEntityClass().getSimpleName(), id, failure);
+        if (pending.putIfAbsent(id, entity) == null && journal != null) unjournaled.putIfAbsent(id, entity);
+    }
+
+    private static boolean isConnectionFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JDBCConnectionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void buffer(Object id, E entity) {
+        val copy = copy(entity, id);
+        pending.put(id, copy);
+        bufferedCount.increment();
+        if (journal != null) {
+            unjournaled.put(id, copy);
+            if (journalTask == null) journalPending();
+        }
+    }
+
+    /**
+     * Drops the buffered entity and journals the delete right away, so a replay cannot bring back
+     * an entity the database no longer has.
+     */
+    private void discard(@Nullable Object id) {
+        if (id == null) return;
+        pending.remove(id);
+        if (journal != null && id instanceof Serializable serializable) {
+            unjournaled.put(id, new Tombstone(serializable));
+            journalPending();
+        }
+    }
+
+    /**
+     * Appends every unjournaled record as one batch. Draining under the journal's lock keeps a
+     * rotation from sealing a segment between the drain and the append.
+     */
+    void journalPending() {
+        synchronized (journal) {
+            if (unjournaled.isEmpty()) return;
+            val records = new ArrayList<>(unjournaled.size());
+            for (val id : unjournaled.keySet()) {
+                val record = unjournaled.remove(id);
+                if (record != null) records.add(record);
+            }
+            journal.append(records);
+        }
+    }
+
+    private void journalQuietly() {
+        try {
+            journalPending();
+        } catch (RuntimeException e) {
+            log.error("Could not journal buffered {} entities", getEntityClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Detached copy of the entity's state, with each value copied the way Hibernate snapshots it
+     * for dirty checking. Associations and collections are shared with the original.
+     */
+    private E copy(E entity, Object id) {
+        val values = persister.getValues(Hibernate.unproxy(entity));
+        val types = persister.getPropertyTypes();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = types[i].deepCopy(values[i], sessionFactory);
+        }
+        val copy = persister.getRepresentationStrategy().getInstantiator().instantiate(sessionFactory);
+        persister.setValues(copy, values);
+        persister.setIdentifier(copy, persister.getIdentifierType().deepCopy(id, sessionFactory), null);
+        return getEntityClass().cast(copy);
+    }
+
+    private void afterBuffer() {
+        val size = pending.size();
+        if (size >= maxPending) {
+            flushPending();
+        } else if (size >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            log.error("Could not write {} buffered {} entities, retrying on the next flush",
+                    pending.size(), getEntityClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T withFlushLock(Supplier<T> action) {
+        flushLock.lock();
+        try {
+            return action.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Nullable
+    private Object idOf(E entity) {
+        return entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay() {
+        val records = journal.replay();
+        if (records.isEmpty()) return;
+        for (val record : records) {
+            if (record instanceof Tombstone tombstone) {
+                pending.remove(tombstone.id());
+            } else if (getEntityClass().isInstance(record)) {
+                val entity = (E) record;
+                pending.put(idOf(entity), entity);
+            }
+        }
+        log.info("Replaying {} journaled {} entities", pending.size(), getEntityClass().getSimpleName());
+        flushQuietly();
+    }
+
+    @Nullable
+    private static WriteBehindJournal journal(Path directory, Class<?> entityClass) {
+        if (!Serializable.class.isAssignableFrom(entityClass)) {
+            log.warn("{} is not Serializable, write-behind journal disabled for it", entityClass.getName());
+            return null;
+        }
+        return new WriteBehindJournal(directory, entityClass);
+    }
+
+    /**
+     * Journal record of a delete, so a replay does not bring the entity back.
+     */
+    private record Tombstone(Serializable id) implements Serializable {
+    }
+}
@@ -3,8 +3,10 @@ package xyz.quartzframework.data.storage;
 import xyz.quartzframework.data.annotation.SuperStorage;
 import xyz.quartzframework.data.interceptor.TransactionCleanupInterceptor;
 import xyz.quartzframework.data.interceptor.TransactionalInterceptor;
+import xyz.quartzframework.data.page.*;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @SuperStorage(value = JPAStorageProvider.class, interceptors = {TransactionalInterceptor.class, TransactionCleanupInterceptor.class})
 public interface JPAStorage<E, ID> extends SimpleStorage<E, ID> {
@@ -15,4 +17,39 @@ public interface JPAStorage<E, ID> extends SimpleStorage<E, ID> {
 
     E saveAndFlush(E entity);
 
+    /**
+     * Deletes by id with chunked bulk {@code DELETE ... WHERE id IN (...)} statements, without
+     * loading the entities. Lifecycle callbacks, cascades and the persistence context are bypassed.
+     *
+     * @return the number of deleted rows
+     */
+    int deleteAllById(Iterable<ID> ids);
+
+    /**
+     * Loads entities by id in batches, skipping ids already in the persistence context. Missing
+     * ids are left out; the remaining entities keep the order of the given ids.
+     */
+    List<E> findAllById(Iterable<ID> ids);
+
+    boolean existsAllById(Iterable<ID> ids);
+
+    Page<E> findAll(Pagination pagination, CountMode countMode);
+
+    /**
+     * Offset page without a count; fetches one extra row to tell whether a next page exists.
+     */
+    Slice<E> findSlice(Pagination pagination);
+
+    /**
+     * Streams every entity through a forward-only cursor. The stream holds a connection until it
+     * is closed.
+     */
+    Stream<E> streamAll();
+
+    /**
+     * Keyset pagination: seeks past the cursor on the sort keys, with the id as a tie-breaker,
+     * instead of skipping rows with an offset, and does not count.
+     */
+    Slice<E> findAll(Cursor cursor, Sort sort, int size);
+
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import xyz.quartzframework.core.bean.annotation.Injectable;
 import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanMissing;
+import xyz.quartzframework.data.cache.CountCache;
 import xyz.quartzframework.data.query.JPAQueryExecutor;
 import xyz.quartzframework.data.query.QueryExecutor;
 
@@ -14,13 +15,15 @@ public class JPAStorageProvider implements StorageProvider {
 
     private final EntityManagerFactory entityManagerFactory;
 
+    private final CountCache countCache;
+
     @Override
     public <E, ID> HibernateJPAStorage<E, ID> create(Class<E> entity, Class<ID> id) {
-        return new HibernateJPAStorage<>(entityManagerFactory, entity, id);
+        return new HibernateJPAStorage<>(entityManagerFactory, entity, id, countCache);
     }
 
     @Override
     public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
-        return new JPAQueryExecutor<>(entityManagerFactory, storage.getEntityClass());
+        return new JPAQueryExecutor<>(entityManagerFactory, storage.getEntityClass(), countCache);
     }
 }
\ No newline at end of file
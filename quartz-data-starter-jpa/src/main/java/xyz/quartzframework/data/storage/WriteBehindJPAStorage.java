@@ -0,0 +1,40 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.annotation.SuperStorage;
+import xyz.quartzframework.data.interceptor.TransactionCleanupInterceptor;
+import xyz.quartzframework.data.interceptor.TransactionalInterceptor;
+import xyz.quartzframework.data.metrics.Histogram;
+
+/**
+ * {@link JPAStorage} that buffers {@code save} calls in memory, keeping only the latest state per
+ * id, and writes the buffer in JDBC batches through {@link #saveAndFlush(Iterable)} on an interval,
+ * once it reaches a size threshold, and when the plugin is disabled.
+ * <p>
+ * {@link #findById} and {@link #exists} see buffered entities; other queries only see them once
+ * written, so call {@link #flush()} first when that matters. Buffered writes are not part of the
+ * caller's transaction and are not rolled back with it. Entities without an id are written
+ * immediately.
+ */
+@SuperStorage(value = WriteBehindJPAStorageProvider.class, interceptors = {TransactionalInterceptor.class, TransactionCleanupInterceptor.class})
+public interface WriteBehindJPAStorage<E, ID> extends JPAStorage<E, ID> {
+
+    /**
+     * Writes every buffered entity now.
+     *
+     * @return the number of entities written
+     */
+    int flushPending();
+
+    int getPendingCount();
+
+    /**
+     * Buffered {@code save} calls per row written; {@code 1.0} means no update was coalesced.
+     */
+    double getCoalescingRatio();
+
+    /**
+     * Duration of each buffer flush, in milliseconds.
+     */
+    Histogram getFlushLatencyMillis();
+
+}
@@ -0,0 +1,72 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import xyz.quartzframework.core.bean.annotation.Injectable;
+import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanMissing;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.properties.JPAPersistenceProperties;
+import xyz.quartzframework.data.query.JPAQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Injectable
+@RequiredArgsConstructor
+@ActivateWhenBeanMissing(WriteBehindJPAStorageProvider.class)
+public class WriteBehindJPAStorageProvider implements StorageProvider {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CountCache countCache;
+
+    private final JPAPersistenceProperties jpaProperties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        val thread = new Thread(task, "quartz-jpa-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<HibernateWriteBehindJPAStorage<?, ?>> storages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public <E, ID> HibernateWriteBehindJPAStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        val journalDirectory = jpaProperties.getWriteBehindJournalDirectory();
+        val storage = new HibernateWriteBehindJPAStorage<>(
+                entityManagerFactory,
+                entity,
+                id,
+                countCache,
+                scheduler,
+                Duration.ofMillis(jpaProperties.getWriteBehindFlushIntervalMillis()),
+                jpaProperties.getWriteBehindFlushThreshold(),
+                jpaProperties.getWriteBehindMaxPending(),
+                journalDirectory == null || journalDirectory.isBlank() ? null : Path.of(journalDirectory),
+                Duration.ofMillis(jpaProperties.getWriteBehindJournalIntervalMillis()));
+        storages.add(storage);
+        return storage;
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        return new JPAQueryExecutor<>(entityManagerFactory, storage.getEntityClass(), countCache);
+    }
+
+    /**
+     * Writes every buffered entity before the plugin goes away.
+     */
+    @PreDestroy
+    public void close() {
+        storages.forEach(HibernateWriteBehindJPAStorage::close);
+        storages.clear();
+        scheduler.shutdown();
+    }
+}
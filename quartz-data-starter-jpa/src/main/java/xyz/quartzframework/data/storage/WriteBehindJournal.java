@@ -0,0 +1,156 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only spill file for entities buffered by {@link HibernateWriteBehindJPAStorage}.
+ * <p>
+ * The journal is split into numbered segments. A flush seals the current segment before draining
+ * the buffer and discards sealed segments once the batch is written, so every buffered change is
+ * in a segment until it reaches the database. Segments left behind by a crash are replayed on
+ * startup; a segment cut short mid-record is read up to its last complete entity.
+ */
+@Slf4j
+final class WriteBehindJournal implements Closeable {
+
+    private final Path directory;
+
+    private final String prefix;
+
+    private final Pattern segmentName;
+
+    private final ClassLoader classLoader;
+
+    private long sequence;
+
+    private ObjectOutputStream out;
+
+    WriteBehindJournal(Path directory, Class<?> entityClass) {
+        this.directory = directory;
+        this.prefix = entityClass.getName();
+        this.segmentName = Pattern.compile(Pattern.quote(prefix) + "\\.(\\d+)\\.journal");
+        this.classLoader = entityClass.getClassLoader();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create write-behind journal directory: " + directory, e);
+        }
+        this.sequence = segments().stream().mapToLong(this::sequenceOf).max().orElse(0L) + 1;
+    }
+
+    /**
+     * Appends the records to the current segment and flushes it once for the whole batch.
+     */
+    synchronized void append(Collection<?> records) {
+        if (records.isEmpty()) return;
+        try {
+            if (out == null) {
+                out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(segment(sequence))));
+            }
+            for (val record : records) {
+                out.writeObject(record);
+                out.reset();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to write-behind journal: " + segment(sequence), e);
+        }
+    }
+
+    /**
+     * Seals the current segment and starts a new one.
+     *
+     * @return the sequence of the sealed segment
+     */
+    synchronized long rotate() {
+        closeSegment();
+        return sequence++;
+    }
+
+    /**
+     * Deletes sealed segments up to and including the given sequence.
+     */
+    synchronized void discard(long upTo) {
+        for (val segment : segments()) {
+            if (sequenceOf(segment) > upTo) continue;
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete write-behind journal segment {}", segment, e);
+            }
+        }
+    }
+
+    /**
+     * Entities from every segment on disk, oldest first. Meant to be called before anything is
+     * appended.
+     */
+    synchronized List<Object> replay() {
+        val entities = new ArrayList<>();
+        for (val segment : segments()) {
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(segment))) {
+                @Override
+                protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    try {
+                        return Class.forName(desc.getName(), false, classLoader);
+                    } catch (ClassNotFoundException e) {
+                        return super.resolveClass(desc);
+                    }
+                }
+            }) {
+                while (true) {
+                    entities.add(in.readObject());
+                }
+            } catch (EOFException | StreamCorruptedException e) {
+                // end of segment, or a record cut short by a crash
+            } catch (IOException | ClassNotFoundException e) {
+                log.warn("Could not fully replay write-behind journal segment {}", segment, e);
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeSegment();
+    }
+
+    private void closeSegment() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Could not close write-behind journal segment {}", segment(sequence), e);
+        }
+        out = null;
+    }
+
+    private Path segment(long sequence) {
+        return directory.resolve(prefix + "." + sequence + ".journal");
+    }
+
+    private long sequenceOf(Path segment) {
+        val matcher = segmentName.matcher(segment.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1L;
+    }
+
+    private List<Path> segments() {
+        try (val files = Files.list(directory)) {
+            return files.filter(path -> sequenceOf(path) >= 0)
+                    .sorted(Comparator.comparingLong(this::sequenceOf))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list write-behind journal directory: " + directory, e);
+        }
+    }
+}
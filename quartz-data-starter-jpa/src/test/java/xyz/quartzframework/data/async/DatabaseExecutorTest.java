@@ -0,0 +1,119 @@
+package xyz.quartzframework.data.async;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseExecutorTest {
+
+    private EntityManagerFactory emf;
+
+    private DatabaseExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of());
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (executor != null) executor.close();
+        EntityManagerContext.clear();
+        emf.close();
+    }
+
+    @Test
+    void testSubmissionsPastTheQueueCapacityAreRejected() throws Exception {
+        executor = new DatabaseExecutor(1, 1, false, null, false);
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val running = executor.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        val waiting = executor.submit(() -> "waiting");
+        assertEquals(1, executor.getQueuedCount());
+
+        val rejected = executor.submit(() -> "rejected");
+        val error = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertEquals("waiting", waiting.get(5, TimeUnit.SECONDS));
+        assertEquals("accepted", executor.submit(() -> "accepted").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTasksStartWithAnEmptyContextAndLeaksAreClosed() throws Exception {
+        executor = new DatabaseExecutor(1, 10, false, null, false);
+        val open = EntityManagerContext.getOpenCount();
+        val caller = EntityManagerContext.open(emf);
+        try {
+            EntityManagerContext.set(caller);
+            assertNull(executor.submit(EntityManagerContext::get).get(5, TimeUnit.SECONDS));
+            assertSame(caller, EntityManagerContext.get());
+
+            val leaked = executor.submit(() -> {
+                val em = EntityManagerContext.open(emf);
+                EntityManagerContext.set(em);
+                return em;
+            }).get(5, TimeUnit.SECONDS);
+            assertNull(executor.submit(EntityManagerContext::get).get(5, TimeUnit.SECONDS));
+            assertFalse(leaked.isOpen());
+        } finally {
+            EntityManagerContext.clear();
+            EntityManagerContext.close(caller);
+        }
+        assertEquals(open, EntityManagerContext.getOpenCount());
+    }
+
+    @Test
+    void testFuturesCompleteOnTheMainThread() throws Exception {
+        val mainThread = new ConcurrentLinkedQueue<Runnable>();
+        executor = new DatabaseExecutor(1, 10, false, mainThread::add, true);
+        assertTrue(executor.isCompleteOnMainThread());
+        val future = executor.submit(() -> "value");
+        val failed = executor.submit(() -> {
+            throw new IllegalStateException("failed");
+        });
+        await(mainThread, 2);
+        assertFalse(future.isDone());
+        assertFalse(failed.isDone());
+
+        Runnable completion;
+        while ((completion = mainThread.poll()) != null) {
+            completion.run();
+        }
+        assertEquals("value", future.getNow(null));
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    void testFuturesCompleteWhenTheMainThreadRejects() throws Exception {
+        executor = new DatabaseExecutor(1, 10, false, task -> {
+            throw new RejectedExecutionException("plugin disabled");
+        }, true);
+        assertEquals("value", executor.submit(() -> "value").get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(Queue<Runnable> queue, int size) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, queue.size());
+    }
+}
@@ -0,0 +1,169 @@
+package xyz.quartzframework.data.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.query.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaffeineRegionFactoryTest {
+
+    private static final String ENTITY_REGION = UserEntity.class.getName();
+
+    private static final String QUERY_REGION = "quartz.users-by-name";
+
+    interface Finders {
+
+        @CacheableQuery(region = QUERY_REGION)
+        List<UserEntity> findByUsernameLike(String pattern);
+    }
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private CaffeineRegionFactory regionFactory;
+
+    private EntityManagerFactory emf;
+
+    private UUID adminId;
+
+    @BeforeEach
+    void setup() {
+        regionFactory = new CaffeineRegionFactory();
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(
+                AvailableSettings.USE_SECOND_LEVEL_CACHE, "true",
+                AvailableSettings.USE_QUERY_CACHE, "true",
+                AvailableSettings.JAKARTA_SHARED_CACHE_MODE, "ALL",
+                AvailableSettings.CACHE_REGION_FACTORY, regionFactory,
+                AvailableSettings.CACHE_REGION_PREFIX, "quartz",
+                CaffeineRegionFactory.DEFAULT_MAX_SIZE, "100",
+                CaffeineRegionFactory.REGIONS, UserEntity.class.getName() + "=60000/2, users-by-name=60000/1",
+                AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                }));
+        adminId = UUID.randomUUID();
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.persist(new UserEntity(adminId, "admin", true, Instant.now()));
+            em.getTransaction().commit();
+        }
+        statements.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        emf.close();
+    }
+
+    @Test
+    void testEntityIsServedFromTheSecondLevelCache() {
+        try (var em = emf.createEntityManager()) {
+            assertEquals("admin", em.find(UserEntity.class, adminId).getUsername());
+            assertEquals(0, userSelects(), statements.toString());
+            assertEquals(1, statistics(ENTITY_REGION).hitCount());
+
+            val misses = statistics(ENTITY_REGION).missCount();
+            assertNull(em.find(UserEntity.class, UUID.randomUUID()));
+            assertEquals(1, userSelects(), statements.toString());
+            assertEquals(misses + 1, statistics(ENTITY_REGION).missCount());
+        }
+    }
+
+    @Test
+    void testRegionSettingsBoundTheRegion() throws Exception {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            for (int i = 0; i < 5; i++) {
+                em.persist(new UserEntity(UUID.randomUUID(), "user" + i, true, Instant.now()));
+            }
+            em.getTransaction().commit();
+        }
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (regionFactory.getSize(ENTITY_REGION) > 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, regionFactory.getSize(ENTITY_REGION));
+        assertEquals(4, statistics(ENTITY_REGION).evictionCount());
+    }
+
+    @Test
+    void testPrefixedRegionUsesTheUnprefixedSettings() throws Exception {
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.persist(new UserEntity(UUID.randomUUID(), "bob", true, Instant.now()));
+            em.getTransaction().commit();
+        }
+        val executor = new JPAQueryExecutor<>(emf, UserEntity.class);
+        val definition = definition(Finders.class.getMethod("findByUsernameLike", String.class));
+        executor.find(definition, new Object[]{"a%"});
+        executor.find(definition, new Object[]{"b%"});
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (regionFactory.getSize(QUERY_REGION) > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, regionFactory.getSize(QUERY_REGION));
+        assertEquals(1, statistics(QUERY_REGION).evictionCount());
+    }
+
+    @Test
+    void testInvalidRegionSettingIsRejected() {
+        val error = assertThrows(IllegalArgumentException.class, () -> new CaffeineRegionFactory()
+                .prepareForUse(null, Map.of(CaffeineRegionFactory.REGIONS, "users=60000")));
+        assertTrue(error.getMessage().contains("users=60000"));
+    }
+
+    @Test
+    void testCacheableQueryIsServedFromTheQueryCache() throws Exception {
+        val executor = new JPAQueryExecutor<>(emf, UserEntity.class);
+        val definition = definition(Finders.class.getMethod("findByUsernameLike", String.class));
+        List<UserEntity> first = executor.find(definition, new Object[]{"a%"});
+        List<UserEntity> second = executor.find(definition, new Object[]{"a%"});
+        assertEquals(List.of("admin"), first.stream().map(UserEntity::getUsername).toList());
+        assertEquals(List.of("admin"), second.stream().map(UserEntity::getUsername).toList());
+        assertEquals(1, userSelects(), statements.toString());
+        val stats = statistics(QUERY_REGION);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    private CacheStats statistics(String region) {
+        return regionFactory.getStatistics().get(region);
+    }
+
+    /**
+     * Selects against the users table; the inverse one-to-one profile is always loaded by query.
+     */
+    private long userSelects() {
+        return statements.stream().filter(sql -> sql.contains(" from users ")).count();
+    }
+
+    private static DynamicQueryDefinition definition(java.lang.reflect.Method method) {
+        return new DynamicQueryDefinition(
+                method,
+                QueryAction.FIND,
+                List.of(QuerySubstitution.positional("0", "?1")),
+                List.of(new QueryCondition("username like ?1", new AttributePath("username", "username", CaseFunction.NONE), Operation.LIKE, "?1", false)),
+                List.of(),
+                null,
+                false,
+                false,
+                null,
+                UserEntity.class,
+                null);
+    }
+}
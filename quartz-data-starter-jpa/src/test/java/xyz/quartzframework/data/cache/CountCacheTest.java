@@ -0,0 +1,148 @@
+package xyz.quartzframework.data.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.UserProfile;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.page.CountMode;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.specification.QuerySpecification;
+import xyz.quartzframework.data.storage.HibernateJPAStorage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    @Test
+    void testInvalidationIsPerEntityClass() {
+        val cache = new CountCache(Duration.ofMinutes(1), 100);
+        assertEquals(1, cache.get(UserEntity.class, "all", new Object[0], () -> 1));
+        assertEquals(2, cache.get(UserProfile.class, "all", new Object[0], () -> 2));
+        assertEquals(1, cache.get(UserEntity.class, "all", new Object[0], () -> 10));
+        cache.invalidate(UserEntity.class);
+        assertEquals(10, cache.get(UserEntity.class, "all", new Object[0], () -> 10));
+        assertEquals(2, cache.get(UserProfile.class, "all", new Object[0], () -> 20));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void testArgumentsArePartOfTheKey() {
+        val cache = new CountCache(Duration.ofMinutes(1), 100);
+        assertEquals(1, cache.get(UserEntity.class, "byName", new Object[]{"a"}, () -> 1));
+        assertEquals(2, cache.get(UserEntity.class, "byName", new Object[]{"b"}, () -> 2));
+        assertEquals(1, cache.get(UserEntity.class, "byName", new Object[]{"a"}, () -> 3));
+    }
+
+    @Test
+    void testSizeIsBoundedWithoutDroppingEverything() {
+        val cache = new CountCache(Duration.ofMinutes(1), 10);
+        for (int i = 0; i < 100; i++) {
+            cache.get(UserEntity.class, "q" + i, new Object[0], () -> 1);
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        val cache = new CountCache(Duration.ofMinutes(1), 10);
+        cache.get(UserEntity.class, "q", new Object[0], Duration.ofMillis(1), () -> 1);
+        Thread.sleep(20);
+        assertEquals(2, cache.get(UserEntity.class, "q", new Object[0], () -> 2));
+    }
+
+    @Test
+    void testSpecificationCountsAreSharedBetweenEquivalentLambdas() {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("test-unit");
+        try {
+            try (var em = emf.createEntityManager()) {
+                em.getTransaction().begin();
+                em.persist(new UserEntity(UUID.randomUUID(), "admin", true, Instant.now()));
+                em.persist(new UserEntity(UUID.randomUUID(), "alice", true, Instant.now()));
+                em.persist(new UserEntity(UUID.randomUUID(), "bob", true, Instant.now()));
+                em.getTransaction().commit();
+            }
+            val cache = new CountCache(Duration.ofMinutes(1), 100);
+            val storage = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class, cache);
+            for (int i = 0; i < 3; i++) {
+                val page = storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED);
+                assertEquals(2, page.getTotalElements());
+            }
+            assertEquals(1, storage.find(startingWith("b"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+            storage.save(new UserEntity(UUID.randomUUID(), "anna", true, Instant.now()));
+            assertEquals(3, storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+        } finally {
+            emf.close();
+        }
+    }
+
+    @Test
+    void testCountsInsideTransactionsAreNotCached() {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("test-unit");
+        try {
+            try (var em = emf.createEntityManager()) {
+                em.getTransaction().begin();
+                em.persist(new UserEntity(UUID.randomUUID(), "alice", true, Instant.now()));
+                em.getTransaction().commit();
+            }
+            val cache = new CountCache(Duration.ofMinutes(1), 100);
+            val storage = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class, cache);
+            val em = EntityManagerContext.open(emf);
+            try {
+                em.getTransaction().begin();
+                EntityManagerContext.set(em);
+                storage.save(new UserEntity(UUID.randomUUID(), "anna", true, Instant.now()));
+                assertEquals(2, storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+                assertEquals(0, cache.size());
+                em.getTransaction().rollback();
+            } finally {
+                EntityManagerContext.clear();
+                EntityManagerContext.close(em);
+            }
+            assertEquals(1, storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+        } finally {
+            emf.close();
+        }
+    }
+
+    @Test
+    void testCountsAreInvalidatedAgainAfterCommit() {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("test-unit");
+        try {
+            val cache = new CountCache(Duration.ofMinutes(1), 100);
+            val storage = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class, cache);
+            val em = EntityManagerContext.open(emf);
+            try {
+                em.getTransaction().begin();
+                EntityManagerContext.set(em);
+                storage.save(new UserEntity(UUID.randomUUID(), "anna", true, Instant.now()));
+                val concurrent = CompletableFuture.supplyAsync(() ->
+                        storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+                assertEquals(0, concurrent.join());
+                assertEquals(1, cache.size());
+                em.getTransaction().commit();
+            } finally {
+                EntityManagerContext.clear();
+                EntityManagerContext.close(em);
+            }
+            assertEquals(1, storage.find(startingWith("a"), new Pagination(1, 10), CountMode.CACHED).getTotalElements());
+        } finally {
+            emf.close();
+        }
+    }
+
+    private static QuerySpecification<UserEntity> startingWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("username"), prefix + "%");
+    }
+}
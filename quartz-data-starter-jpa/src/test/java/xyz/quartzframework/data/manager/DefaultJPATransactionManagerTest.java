@@ -0,0 +1,125 @@
+package xyz.quartzframework.data.manager;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.storage.HibernateJPAStorage;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultJPATransactionManagerTest {
+
+    private EntityManagerFactory emf;
+
+    private DefaultJPATransactionManager transactionManager;
+
+    private HibernateJPAStorage<UserEntity, UUID> storage;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(AvailableSettings.GENERATE_STATISTICS, "true"));
+        transactionManager = new DefaultJPATransactionManager(emf);
+        storage = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        EntityManagerContext.clear();
+        emf.close();
+    }
+
+    @Test
+    void testRequiredJoinsTheCurrentTransaction() {
+        val outer = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        val em = EntityManagerContext.get();
+        val inner = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        assertTrue(outer.isNewTransaction());
+        assertFalse(inner.isNewTransaction());
+        assertSame(em, EntityManagerContext.get());
+        val user = storage.save(user("joined"));
+        transactionManager.commit(inner);
+        assertTrue(em.getTransaction().isActive());
+        transactionManager.commit(outer);
+        assertNull(EntityManagerContext.get());
+        assertTrue(storage.findById(user.getId()).isPresent());
+    }
+
+    @Test
+    void testRequiresNewSuspendsAndResumes() {
+        val outer = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        val outerEm = EntityManagerContext.get();
+        val outerUser = storage.save(user("outer"));
+        val inner = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertTrue(inner.isNewTransaction());
+        assertNotSame(outerEm, EntityManagerContext.get());
+        val innerUser = storage.save(user("inner"));
+        transactionManager.commit(inner);
+        assertSame(outerEm, EntityManagerContext.get());
+        transactionManager.rollback(outer);
+        assertTrue(storage.findById(innerUser.getId()).isPresent());
+        assertTrue(storage.findById(outerUser.getId()).isEmpty());
+    }
+
+    @Test
+    void testParticipantRollbackFailsTheOuterCommit() {
+        val outer = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        val user = storage.save(user("doomed"));
+        val inner = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        transactionManager.rollback(inner);
+        assertThrows(UnexpectedRollbackException.class, () -> transactionManager.commit(outer));
+        assertNull(EntityManagerContext.get());
+        assertTrue(storage.findById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void testNestedRollsBackToSavepoint() {
+        val outer = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        val kept = storage.save(user("kept"));
+        val nested = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_NESTED));
+        val discarded = storage.save(user("discarded"));
+        transactionManager.rollback(nested);
+        transactionManager.commit(outer);
+        assertTrue(storage.findById(kept.getId()).isPresent());
+        assertTrue(storage.findById(discarded.getId()).isEmpty());
+    }
+
+    @Test
+    void testLogicalTransactionUsesOneConnection() {
+        val statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        val opened = EntityManagerContext.getOpenedCount();
+        val outer = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+        for (int i = 0; i < 3; i++) {
+            val inner = transactionManager.getTransaction(definition(TransactionDefinition.PROPAGATION_REQUIRED));
+            val user = storage.save(user("user" + i));
+            storage.findById(user.getId());
+            storage.count();
+            transactionManager.commit(inner);
+        }
+        transactionManager.commit(outer);
+        assertEquals(1, EntityManagerContext.getOpenedCount() - opened);
+        assertEquals(1, statistics.getConnectCount());
+        assertEquals(0, EntityManagerContext.getOpenCount());
+    }
+
+    private static TransactionDefinition definition(int propagation) {
+        return new DefaultTransactionDefinition(propagation);
+    }
+
+    private static UserEntity user(String username) {
+        return new UserEntity(UUID.randomUUID(), username, true, Instant.now());
+    }
+}
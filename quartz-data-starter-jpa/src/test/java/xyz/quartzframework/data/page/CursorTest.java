@@ -0,0 +1,79 @@
+package xyz.quartzframework.data.page;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void testRoundTripOfSupportedValues() {
+        Object[] values = {
+                "name", 1L, 2, (short) 3, (byte) 4, 5.5d, 6.5f, new BigDecimal("7.25"), BigInteger.TEN, true, 'x',
+                UUID.randomUUID(), Instant.ofEpochSecond(1_700_000_000L, 123), LocalDate.of(2024, 1, 2),
+                LocalTime.of(3, 4, 5), LocalDateTime.of(2024, 1, 2, 3, 4), OffsetDateTime.now(ZoneOffset.UTC),
+                ZonedDateTime.now(ZoneId.of("Europe/Lisbon")), new Date(1000), new java.sql.Date(2000),
+                new java.sql.Timestamp(3000), TimeUnit.SECONDS, null
+        };
+        List<String> keys = java.util.stream.IntStream.range(0, values.length).mapToObj(i -> "k" + i).toList();
+        var decoded = Cursor.of(Cursor.after(keys, values).getToken()).values(keys);
+        assertArrayEquals(values, decoded);
+        for (int i = 0; i < values.length - 1; i++) {
+            assertSame(values[i].getClass(), decoded[i].getClass());
+        }
+    }
+
+    @Test
+    void testFirstCursorHasEmptyToken() {
+        assertEquals("", Cursor.first().getToken());
+        assertTrue(Cursor.of("").isFirst());
+    }
+
+    @Test
+    void testRejectsSerializedObjects() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new String[]{"id"});
+            out.writeObject(new Object[]{1L});
+        }
+        var token = Base64.getUrlEncoder().encodeToString(bytes.toByteArray());
+        assertThrows(IllegalArgumentException.class, () -> Cursor.of(token));
+    }
+
+    @Test
+    void testRejectsNonEnumTypeNames() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeByte(1);
+            out.writeUTF("unit");
+            out.writeByte(22);
+            out.writeUTF("java.util.concurrent.Semaphore");
+            out.writeUTF("SECONDS");
+        }
+        var token = Base64.getUrlEncoder().encodeToString(bytes.toByteArray());
+        var error = assertThrows(IllegalArgumentException.class, () -> Cursor.of(token));
+        assertTrue(error.getCause().getMessage().contains("Not an enum type"));
+    }
+
+    @Test
+    void testRejectsGarbageAndUnsupportedValues() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.of("not-a-cursor"));
+        var token = Cursor.after(List.of("id"), new Object[]{1L}).getToken();
+        assertThrows(IllegalArgumentException.class, () -> Cursor.of(token + "AA"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.after(List.of("id"), new Object[]{new Object()}).getToken());
+        assertThrows(IllegalArgumentException.class, () -> Cursor.of(token).values(List.of("name")));
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.quartzframework.data.query;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JPAQueryExecutorTest {
+
+    interface Finders {
+
+        List<UserEntity> findByEnabledTrueAndUsernameLike(String pattern);
+    }
+
+    private EntityManagerFactory emf;
+
+    private JPAQueryExecutor<UserEntity> executor;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit");
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.persist(new UserEntity(UUID.randomUUID(), "admin", true, Instant.now()));
+            em.persist(new UserEntity(UUID.randomUUID(), "alice", false, Instant.now()));
+            em.persist(new UserEntity(UUID.randomUUID(), "bob", true, Instant.now()));
+            em.getTransaction().commit();
+        }
+        executor = new JPAQueryExecutor<>(emf, UserEntity.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        emf.close();
+    }
+
+    @Test
+    void testPlanIsCompiledOncePerMethod() throws Exception {
+        val method = Finders.class.getMethod("findByEnabledTrueAndUsernameLike", String.class);
+        val plan = executor.plan(definition(method));
+        assertSame(plan, executor.plan(definition(method)));
+        assertNotSame(plan, executor.plan(definition(null)));
+    }
+
+    @Test
+    void testReusedPlanBindsLiteralsAndArguments() throws Exception {
+        val method = Finders.class.getMethod("findByEnabledTrueAndUsernameLike", String.class);
+        List<UserEntity> admins = executor.find(definition(method), new Object[]{"a%"});
+        List<UserEntity> bobs = executor.find(definition(method), new Object[]{"b%"});
+        List<UserEntity> nobody = executor.find(definition(method), new Object[]{"alice"});
+        assertEquals(List.of("admin"), admins.stream().map(UserEntity::getUsername).toList());
+        assertEquals(List.of("bob"), bobs.stream().map(UserEntity::getUsername).toList());
+        assertTrue(nobody.isEmpty());
+        assertEquals(2, executor.count(definition(method), new Object[]{"%"}));
+    }
+
+    private static DynamicQueryDefinition definition(java.lang.reflect.Method method) {
+        return new DynamicQueryDefinition(
+                method,
+                QueryAction.FIND,
+                List.of(QuerySubstitution.literal(true, "true"), QuerySubstitution.positional("0", "?1")),
+                List.of(
+                        new QueryCondition("enabled = true", new AttributePath("enabled", "enabled", CaseFunction.NONE), Operation.EQUAL, "true", false),
+                        new QueryCondition("username like ?1", new AttributePath("username", "username", CaseFunction.NONE), Operation.LIKE, "?1", false)),
+                List.of(new Order("username", false)),
+                null,
+                false,
+                false,
+                null,
+                UserEntity.class,
+                null);
+    }
+}
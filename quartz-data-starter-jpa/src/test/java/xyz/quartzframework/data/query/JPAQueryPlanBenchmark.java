@@ -0,0 +1,185 @@
+package xyz.quartzframework.data.query;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.val;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hottest derived finders against H2, executed through cached {@link JPAQueryPlan}s and through a
+ * {@code CriteriaQuery} rebuilt on every call, as {@link JPAQueryExecutor} did before plans.
+ * <p>
+ * Run with {@code mvn -Pjmh verify -pl quartz-data-starter-jpa -Djmh.args=JPAQueryPlan}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JPAQueryPlanBenchmark {
+
+    interface Finders {
+
+        List<UserEntity> findByUsername(String username);
+
+        List<UserEntity> findByEnabledTrueAndUsernameLikeOrderByUsername(String pattern);
+
+        long countByEnabledTrue();
+    }
+
+    private static final int USERS = 1_000;
+
+    private EntityManagerFactory emf;
+
+    private JPAQueryExecutor<UserEntity> executor;
+
+    private DynamicQueryDefinition byUsername;
+
+    private DynamicQueryDefinition enabledByUsernameLike;
+
+    private DynamicQueryDefinition countEnabled;
+
+    @Setup
+    public void setup() throws Exception {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(AvailableSettings.SHOW_SQL, "false"));
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            for (int i = 0; i < USERS; i++) {
+                em.persist(new UserEntity(UUID.randomUUID(), "user" + i, i % 2 == 0, Instant.now()));
+            }
+            em.getTransaction().commit();
+        }
+        executor = new JPAQueryExecutor<>(emf, UserEntity.class);
+        byUsername = definition(Finders.class.getMethod("findByUsername", String.class), QueryAction.FIND,
+                List.of(QuerySubstitution.positional("0", "?1")),
+                List.of(condition("username", Operation.EQUAL, "?1")),
+                List.of());
+        enabledByUsernameLike = definition(
+                Finders.class.getMethod("findByEnabledTrueAndUsernameLikeOrderByUsername", String.class), QueryAction.FIND,
+                List.of(QuerySubstitution.literal(true, "true"), QuerySubstitution.positional("0", "?1")),
+                List.of(condition("enabled", Operation.EQUAL, "true"), condition("username", Operation.LIKE, "?1")),
+                List.of(new Order("username", false)));
+        countEnabled = definition(Finders.class.getMethod("countByEnabledTrue"), QueryAction.COUNT,
+                List.of(QuerySubstitution.literal(true, "true")),
+                List.of(condition("enabled", Operation.EQUAL, "true")),
+                List.of());
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<UserEntity> findByUsernamePlanned() {
+        return executor.find(byUsername, new Object[]{"user500"});
+    }
+
+    @Benchmark
+    public List<UserEntity> findByUsernameCriteria() {
+        return criteriaFind(byUsername, new Object[]{"user500"});
+    }
+
+    @Benchmark
+    public List<UserEntity> findEnabledByUsernameLikePlanned() {
+        return executor.find(enabledByUsernameLike, new Object[]{"user50%"});
+    }
+
+    @Benchmark
+    public List<UserEntity> findEnabledByUsernameLikeCriteria() {
+        return criteriaFind(enabledByUsernameLike, new Object[]{"user50%"});
+    }
+
+    @Benchmark
+    public long countEnabledPlanned() {
+        return executor.count(countEnabled, new Object[0]);
+    }
+
+    @Benchmark
+    public long countEnabledCriteria() {
+        return criteriaCount(countEnabled, new Object[0]);
+    }
+
+    private List<UserEntity> criteriaFind(DynamicQueryDefinition definition, Object[] args) {
+        return EntityManagerContext.execute(emf, em -> {
+            val cb = em.getCriteriaBuilder();
+            val query = cb.createQuery(UserEntity.class);
+            val root = query.from(UserEntity.class);
+            query.where(predicates(definition, cb, root, args));
+            if (!definition.orders().isEmpty()) {
+                query.orderBy(definition.orders().stream()
+                        .map(order -> order.descending() ? cb.desc(path(root, order.property())) : cb.asc(path(root, order.property())))
+                        .toList());
+            }
+            return em.createQuery(query).getResultList();
+        });
+    }
+
+    private long criteriaCount(DynamicQueryDefinition definition, Object[] args) {
+        return EntityManagerContext.execute(emf, em -> {
+            val cb = em.getCriteriaBuilder();
+            val query = cb.createQuery(Long.class);
+            val root = query.from(UserEntity.class);
+            query.select(cb.count(root)).where(predicates(definition, cb, root, args));
+            return em.createQuery(query).getSingleResult();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate[] predicates(DynamicQueryDefinition definition, CriteriaBuilder cb, Root<UserEntity> root, Object[] args) {
+        val conditions = definition.queryConditions();
+        val predicates = new Predicate[conditions.size()];
+        for (int i = 0; i < conditions.size(); i++) {
+            val condition = conditions.get(i);
+            val substitution = definition.querySubstitutions().get(i);
+            val value = substitution.isLiteral()
+                    ? substitution.getLiteralValue()
+                    : args[Integer.parseInt(substitution.getNameOrIndex())];
+            val path = path(root, condition.getAttribute().name());
+            predicates[i] = switch (condition.getOperation()) {
+                case EQUAL -> cb.equal(path, value);
+                case LIKE -> cb.like((Path<String>) (Path<?>) path, (String) value);
+                default -> throw new UnsupportedOperationException(condition.getOperation().name());
+            };
+        }
+        return predicates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Path<Object> path(Root<UserEntity> root, String property) {
+        Path<?> path = root;
+        for (val part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return (Path<Object>) path;
+    }
+
+    private static QueryCondition condition(String attribute, Operation operation, String value) {
+        return new QueryCondition(attribute + " " + operation.name().toLowerCase() + " " + value,
+                new AttributePath(attribute, attribute, CaseFunction.NONE), operation, value, false);
+    }
+
+    private static DynamicQueryDefinition definition(Method method,
+                                                     QueryAction action,
+                                                     List<QuerySubstitution> substitutions,
+                                                     List<QueryCondition> conditions,
+                                                     List<Order> orders) {
+        return new DynamicQueryDefinition(method, action, substitutions, conditions, orders, null, false, false, null,
+                UserEntity.class, null);
+    }
+}
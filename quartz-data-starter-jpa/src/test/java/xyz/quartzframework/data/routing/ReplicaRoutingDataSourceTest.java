@@ -0,0 +1,134 @@
+package xyz.quartzframework.data.routing;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT CASE WHEN DATABASE() = 'REPLICA2' THEN 10 ELSE 0 END";
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @AfterEach
+    void cleanup() {
+        if (dataSource != null) dataSource.close();
+    }
+
+    @Test
+    void testReadOnlyTransactionsAreBalancedOverReplicas() throws Exception {
+        dataSource = dataSource(false, Duration.ZERO, LAG_QUERY);
+        assertEquals("PRIMARY", database(null));
+        assertEquals("PRIMARY", database(RoutingContext.Route.PRIMARY));
+        val routed = new ArrayList<String>();
+        for (int i = 0; i < 4; i++) {
+            routed.add(database(RoutingContext.Route.READ_ONLY_TRANSACTION));
+        }
+        assertEquals(List.of("REPLICA1", "REPLICA2", "REPLICA1", "REPLICA2"), routed);
+        assertEquals(4, dataSource.getReplicaConnectionCount());
+    }
+
+    @Test
+    void testNonTransactionalReadsFollowTheFlag() throws Exception {
+        dataSource = dataSource(false, Duration.ZERO, LAG_QUERY);
+        assertEquals("PRIMARY", database(RoutingContext.Route.NON_TRANSACTIONAL_READ));
+        dataSource.close();
+        dataSource = dataSource(true, Duration.ZERO, LAG_QUERY);
+        assertTrue(database(RoutingContext.Route.NON_TRANSACTIONAL_READ).startsWith("REPLICA"));
+    }
+
+    @Test
+    void testLaggingReplicaIsFenced() throws Exception {
+        dataSource = dataSource(false, Duration.ofMinutes(1), LAG_QUERY);
+        dataSource.checkLag();
+        assertTrue(dataSource.getReplicas().get(1).isFenced());
+        assertEquals(10_000, dataSource.getReplicas().get(1).getLagMillis());
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("REPLICA1", database(RoutingContext.Route.READ_ONLY_TRANSACTION));
+        }
+    }
+
+    @Test
+    void testFailedLagCheckFallsBackToThePrimary() throws Exception {
+        dataSource = dataSource(false, Duration.ofMinutes(1), "SELECT lag FROM missing_table");
+        dataSource.checkLag();
+        assertEquals(0, dataSource.getHealthyReplicaCount());
+        assertEquals("PRIMARY", database(RoutingContext.Route.READ_ONLY_TRANSACTION));
+        assertEquals(1, dataSource.getPrimaryFallbackCount());
+    }
+
+    @Test
+    void testFirstLagCheckRunsInTheBackground() throws Exception {
+        val locks = new ArrayList<Connection>();
+        try {
+            for (val replica : List.of("replica1", "replica2")) {
+                val connection = DriverManager.getConnection(url(replica));
+                locks.add(connection);
+                connection.createStatement().execute("CREATE TABLE lag (seconds INT)");
+                connection.createStatement().execute("INSERT INTO lag VALUES (0)");
+                connection.setAutoCommit(false);
+                connection.createStatement().execute("UPDATE lag SET seconds = 0");
+            }
+            dataSource = dataSource(false, Duration.ofMinutes(1), "SELECT seconds FROM lag FOR UPDATE");
+            assertEquals(0, dataSource.getHealthyReplicaCount());
+            assertEquals("PRIMARY", database(RoutingContext.Route.READ_ONLY_TRANSACTION));
+            for (val connection : locks) {
+                connection.commit();
+            }
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (dataSource.getHealthyReplicaCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, dataSource.getHealthyReplicaCount());
+            assertTrue(database(RoutingContext.Route.READ_ONLY_TRANSACTION).startsWith("REPLICA"));
+        } finally {
+            for (val connection : locks) {
+                connection.close();
+            }
+        }
+    }
+
+    private static ReplicaRoutingDataSource dataSource(boolean routeNonTransactionalReads,
+                                                       Duration lagCheckInterval,
+                                                       String lagQuery) {
+        return new ReplicaRoutingDataSource(pool("primary"), List.of(pool("replica1"), pool("replica2")),
+                ReplicaBalancing.ROUND_ROBIN, routeNonTransactionalReads, Duration.ofSeconds(5), lagCheckInterval,
+                lagQuery);
+    }
+
+    private static HikariDataSource pool(String name) {
+        val config = new HikariConfig();
+        config.setJdbcUrl(url(name));
+        config.setMaximumPoolSize(2);
+        return new HikariDataSource(config);
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";LOCK_TIMEOUT=10000";
+    }
+
+    private String database(RoutingContext.Route route) throws SQLException {
+        val previous = route == null ? RoutingContext.get() : RoutingContext.set(route);
+        try (val connection = dataSource.getConnection();
+             val statement = connection.createStatement();
+             val resultSet = statement.executeQuery("SELECT DATABASE()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.async.DatabaseExecutor;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateAsyncJPAStorageTest {
+
+    private EntityManagerFactory emf;
+
+    private DatabaseExecutor executor;
+
+    private HibernateAsyncJPAStorage<UserEntity, UUID> storage;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of());
+        executor = new DatabaseExecutor(2, 10, false, null, false);
+        storage = new HibernateAsyncJPAStorage<>(emf, UserEntity.class, UUID.class,
+                new CountCache(Duration.ofMinutes(1), 100), executor);
+    }
+
+    @AfterEach
+    void cleanup() {
+        executor.close();
+        EntityManagerContext.clear();
+        emf.close();
+    }
+
+    @Test
+    void testAsyncRoundTrip() throws Exception {
+        val user = new UserEntity(UUID.randomUUID(), "async", true, Instant.now());
+        storage.saveAsync(user).get(5, TimeUnit.SECONDS);
+        assertEquals("async", storage.findByIdAsync(user.getId()).get(5, TimeUnit.SECONDS)
+                .map(UserEntity::getUsername).orElse(null));
+        assertEquals(1L, storage.countAsync().get(5, TimeUnit.SECONDS));
+        assertEquals(1L, storage.streamAllAsync(stream -> stream.count()).get(5, TimeUnit.SECONDS));
+        storage.deleteByIdAsync(user.getId()).get(5, TimeUnit.SECONDS);
+        assertFalse(storage.existsAsync(user.getId()).get(5, TimeUnit.SECONDS));
+        assertEquals(0, EntityManagerContext.getOpenCount());
+    }
+
+    @Test
+    void testWorkSubmittedInsideATransactionRunsOutsideOfIt() throws Exception {
+        val user = new UserEntity(UUID.randomUUID(), "uncommitted", true, Instant.now());
+        val em = EntityManagerContext.open(emf);
+        try {
+            em.getTransaction().begin();
+            EntityManagerContext.set(em);
+            storage.saveAndFlush(user);
+            assertTrue(storage.findByIdAsync(user.getId()).get(5, TimeUnit.SECONDS).isEmpty());
+            em.getTransaction().rollback();
+        } finally {
+            EntityManagerContext.clear();
+            EntityManagerContext.close(em);
+        }
+        assertTrue(storage.findById(user.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lombok.val;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.cache.EvictionPolicy;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+import xyz.quartzframework.data.routing.RoutingContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateCachingJPAStorageTest {
+
+    private final List<RoutingContext.Route> routes = new CopyOnWriteArrayList<>();
+
+    private final List<UUID> ids = new ArrayList<>();
+
+    private EntityManagerFactory emf;
+
+    private HibernateCachingJPAStorage<UserEntity, UUID> storage;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(
+                AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    routes.add(RoutingContext.get());
+                    return sql;
+                }));
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            for (int i = 0; i < 5; i++) {
+                val user = new UserEntity(UUID.randomUUID(), "user" + i, true, Instant.now());
+                em.persist(user);
+                ids.add(user.getId());
+            }
+            em.getTransaction().commit();
+        }
+        val countCache = new CountCache(Duration.ofMinutes(1), 100);
+        storage = new HibernateCachingJPAStorage<>(emf, UserEntity.class, UUID.class, countCache,
+                100, Duration.ofMinutes(5), EvictionPolicy.SIZE_ONLY);
+        routes.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        EntityManagerContext.clear();
+        emf.close();
+    }
+
+    @Test
+    void testLoadsAreCachedFromThePrimary() {
+        val first = storage.findById(ids.get(0)).orElseThrow();
+        assertSame(first, storage.findById(ids.get(0)).orElseThrow());
+        assertEquals(5, storage.findAllById(ids).size());
+        assertEquals(5, storage.getCacheSize());
+        assertEquals(2, routes.size());
+        assertTrue(routes.stream().allMatch(route -> route == RoutingContext.Route.PRIMARY), routes.toString());
+    }
+
+    @Test
+    void testTransactionsBypassTheCache() {
+        val cached = storage.findById(ids.get(0)).orElseThrow();
+        val em = begin();
+        try {
+            val loaded = storage.findById(ids.get(0)).orElseThrow();
+            assertNotSame(cached, loaded);
+            assertTrue(em.contains(loaded));
+            assertEquals(1, storage.findAllById(List.of(ids.get(0))).stream().filter(em::contains).count());
+        } finally {
+            end(em, false);
+        }
+    }
+
+    @Test
+    void testWriteIsInvalidatedAgainAfterCommit() {
+        val em = begin();
+        try {
+            val user = storage.findById(ids.get(0)).orElseThrow();
+            user.setUsername("renamed");
+            storage.save(user);
+            CompletableFuture.runAsync(() -> storage.findById(ids.get(0))).join();
+            assertEquals(1, storage.getCacheSize());
+        } finally {
+            end(em, true);
+        }
+        assertEquals(0, storage.getCacheSize());
+        assertEquals("renamed", storage.findById(ids.get(0)).map(UserEntity::getUsername).orElse(null));
+    }
+
+    @Test
+    void testRolledBackWriteIsInvalidated() {
+        storage.findById(ids.get(0));
+        val em = begin();
+        try {
+            storage.deleteById(ids.get(0));
+            CompletableFuture.runAsync(() -> storage.findById(ids.get(0))).join();
+        } finally {
+            end(em, false);
+        }
+        assertEquals(0, storage.getCacheSize());
+        assertTrue(storage.findById(ids.get(0)).isPresent());
+    }
+
+    @Test
+    void testBulkUpdateInvalidatesEverything() {
+        storage.preload(ids);
+        assertEquals(5, storage.getCacheSize());
+        storage.update((root, query, cb) -> cb.conjunction(),
+                (root, update, cb) -> update.set(root.<Boolean>get("enabled"), false));
+        assertEquals(0, storage.getCacheSize());
+        assertTrue(storage.findAllById(ids).stream().noneMatch(UserEntity::isEnabled));
+    }
+
+    private EntityManager begin() {
+        val em = EntityManagerContext.open(emf);
+        em.getTransaction().begin();
+        EntityManagerContext.set(em);
+        return em;
+    }
+
+    private void end(EntityManager em, boolean commit) {
+        try {
+            if (commit) {
+                em.getTransaction().commit();
+            } else {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            EntityManagerContext.clear();
+            EntityManagerContext.close(em);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.criteria.JoinType;
+import lombok.val;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.UserProfile;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateJPAStorageTest {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private EntityManagerFactory emf;
+
+    private HibernateJPAStorage<UserEntity, UUID> storage;
+
+    private UUID adminId;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(
+                AvailableSettings.STATEMENT_BATCH_SIZE, "25",
+                HibernateJPAStorage.MULTI_LOAD_BATCH_SIZE, "8",
+                AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                }));
+        adminId = UUID.randomUUID();
+        try (var em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            val admin = new UserEntity(adminId, "admin", true, Instant.now());
+            em.persist(admin);
+            em.persist(UserProfile.builder().id(UUID.randomUUID()).country("BR").user(admin).build());
+            for (int i = 0; i < 20; i++) {
+                em.persist(new UserEntity(UUID.randomUUID(), "user" + i, i % 2 == 0, Instant.now()));
+            }
+            em.getTransaction().commit();
+        }
+        storage = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class);
+        statements.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        emf.close();
+    }
+
+    @Test
+    void testDeleteBySpecificationRunsOneStatement() {
+        val deleted = storage.delete((root, query, cb) -> cb.like(root.get("username"), "user1%"));
+        assertEquals(11, deleted);
+        assertEquals(1, statements.size(), statements.toString());
+        assertEquals(10, storage.count());
+        assertTrue(statements.get(0).startsWith("delete"));
+    }
+
+    @Test
+    void testUpdateBySpecificationRunsOneStatement() {
+        val updated = storage.update(
+                (root, query, cb) -> cb.isFalse(root.get("enabled")),
+                (root, update, cb) -> update.set(root.<Boolean>get("enabled"), true));
+        assertEquals(10, updated);
+        assertEquals(1, statements.size());
+        assertEquals(21, storage.count((root, query, cb) -> cb.isTrue(root.get("enabled"))));
+    }
+
+    @Test
+    void testAssociationPathsStayInOneStatement() {
+        val updated = storage.update(
+                (root, query, cb) -> cb.equal(root.get("profile").get("country"), "BR"),
+                (root, update, cb) -> update.set(root.<String>get("username"), "renamed"));
+        assertEquals(1, updated);
+        assertEquals(1, statements.size());
+        assertEquals("renamed", storage.findById(adminId).orElseThrow().getUsername());
+    }
+
+    @Test
+    void testJoiningSpecificationFallsBackToIds() {
+        val updated = storage.update(
+                (root, query, cb) -> cb.equal(root.join("profile").get("country"), "BR"),
+                (root, update, cb) -> update.set(root.<Boolean>get("enabled"), false));
+        assertEquals(1, updated);
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).startsWith("select"));
+        assertFalse(storage.findById(adminId).orElseThrow().isEnabled());
+    }
+
+    @Test
+    void testJoiningDeleteFallsBackToIds() {
+        val deleted = storage.delete((root, query, cb) -> cb.isNull(root.join("profile", JoinType.LEFT).get("id")));
+        assertEquals(20, deleted);
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).startsWith("select"));
+        assertEquals(1, storage.count());
+        assertTrue(storage.findById(adminId).isPresent());
+    }
+
+    @Test
+    void testDeleteAllById() {
+        val ids = storage.find((root, query, cb) -> cb.like(root.get("username"), "user%"))
+                .stream()
+                .map(UserEntity::getId)
+                .toList();
+        statements.clear();
+        assertEquals(20, storage.deleteAllById(ids));
+        assertEquals(1, statements.size());
+        assertEquals(1, storage.count());
+    }
+
+    @Test
+    void testSaveWritesInBatches() {
+        val users = new ArrayList<UserEntity>();
+        for (int i = 0; i < 60; i++) {
+            users.add(new UserEntity(UUID.randomUUID(), "batch" + i, true, Instant.now()));
+        }
+        storage.save(users);
+        assertEquals(3, storage.getBatchSizes().getCount());
+        assertEquals(25, storage.getBatchSizes().getMax());
+        assertEquals(3, statements.stream().filter(sql -> sql.startsWith("select")).count());
+        assertEquals(81, storage.count());
+    }
+
+    @Test
+    void testSaveMergesDetachedEntities() {
+        val users = storage.find((root, query, cb) -> cb.like(root.get("username"), "user%"));
+        users.forEach(user -> user.setUsername(user.getUsername() + "-renamed"));
+        statements.clear();
+        storage.save(users);
+        assertTrue(statements.stream().noneMatch(sql -> sql.startsWith("insert")));
+        assertEquals(20, storage.count((root, query, cb) -> cb.like(root.get("username"), "%-renamed")));
+        assertEquals(21, storage.count());
+    }
+
+    @Test
+    void testFindAllByIdLoadsInBatches() {
+        val ids = new ArrayList<>(storage.find((root, query, cb) -> cb.like(root.get("username"), "user%"))
+                .stream()
+                .map(UserEntity::getId)
+                .toList());
+        ids.add(ids.get(0));
+        ids.add(UUID.randomUUID());
+        statements.clear();
+        val found = storage.findAllById(ids);
+        assertEquals(20, found.size());
+        assertEquals(3, statements.size());
+    }
+
+    @Test
+    void testExistsAllById() {
+        assertTrue(storage.existsAllById(List.of(adminId, adminId)));
+        assertFalse(storage.existsAllById(List.of(adminId, UUID.randomUUID())));
+        assertTrue(storage.existsAllById(List.of()));
+    }
+}
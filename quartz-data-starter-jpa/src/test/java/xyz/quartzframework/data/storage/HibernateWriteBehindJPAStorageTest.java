@@ -0,0 +1,181 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Version;
+import lombok.val;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.quartzframework.data.UserEntity;
+import xyz.quartzframework.data.cache.CountCache;
+import xyz.quartzframework.data.manager.EntityManagerContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateWriteBehindJPAStorageTest {
+
+    @Entity
+    static class VersionedEntity {
+
+        @Id
+        private UUID id;
+
+        @Version
+        private long version;
+    }
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path journalDirectory;
+
+    private EntityManagerFactory emf;
+
+    private ScheduledExecutorService scheduler;
+
+    private HibernateJPAStorage<UserEntity, UUID> database;
+
+    @BeforeEach
+    void setup() {
+        emf = Persistence.createEntityManagerFactory("test-unit", Map.of(
+                AvailableSettings.LOADED_CLASSES, List.of(VersionedEntity.class),
+                AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                }));
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        database = new HibernateJPAStorage<>(emf, UserEntity.class, UUID.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        scheduler.shutdownNow();
+        emf.close();
+    }
+
+    @Test
+    void testRepeatedSavesAreCoalesced() {
+        val storage = storage(Duration.ofHours(1));
+        val user = new UserEntity(UUID.randomUUID(), "user0", true, Instant.now());
+        for (int i = 0; i < 50; i++) {
+            user.setUsername("user" + i);
+            storage.save(user);
+        }
+        storage.journalPending();
+        val journaled = new WriteBehindJournal(journalDirectory, UserEntity.class).replay();
+        assertEquals(1, journaled.size());
+        assertEquals("user49", ((UserEntity) journaled.get(0)).getUsername());
+
+        statements.clear();
+        assertEquals(1, storage.flushPending());
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert")).count());
+        assertEquals(50.0, storage.getCoalescingRatio());
+        assertEquals("user49", database.findById(user.getId()).map(UserEntity::getUsername).orElse(null));
+    }
+
+    @Test
+    void testJournalIsReplayedOnStart() throws Exception {
+        val crashed = storage(Duration.ZERO);
+        val kept = new UserEntity(UUID.randomUUID(), "kept", true, Instant.now());
+        val deleted = new UserEntity(UUID.randomUUID(), "deleted", true, Instant.now());
+        crashed.save(List.of(kept, deleted));
+        crashed.deleteById(deleted.getId());
+        assertTrue(database.findById(kept.getId()).isEmpty());
+
+        val restarted = storage(Duration.ZERO);
+        assertEquals(0, restarted.getPendingCount());
+        assertEquals("kept", database.findById(kept.getId()).map(UserEntity::getUsername).orElse(null));
+        assertTrue(database.findById(deleted.getId()).isEmpty());
+        try (val segments = Files.list(journalDirectory)) {
+            assertEquals(0, segments.count());
+        }
+    }
+
+    @Test
+    void testFlushSurvivesCallerRollback() {
+        val storage = storage(Duration.ZERO);
+        val user = new UserEntity(UUID.randomUUID(), "user", true, Instant.now());
+        val em = EntityManagerContext.open(emf);
+        try {
+            em.getTransaction().begin();
+            EntityManagerContext.set(em);
+            storage.saveAndFlush(user);
+            em.getTransaction().rollback();
+        } finally {
+            EntityManagerContext.clear();
+            EntityManagerContext.close(em);
+        }
+        assertEquals(0, storage.getPendingCount());
+        assertTrue(database.findById(user.getId()).isPresent());
+    }
+
+    @Test
+    void testBufferHoldsCopyOfSavedEntity() {
+        val storage = storage(Duration.ZERO);
+        val user = new UserEntity(UUID.randomUUID(), "saved", true, Instant.now());
+        storage.save(user);
+        user.setUsername("changed");
+
+        val buffered = storage.findById(user.getId()).orElseThrow();
+        assertNotSame(user, buffered);
+        assertEquals("saved", buffered.getUsername());
+        buffered.setUsername("changed");
+        assertEquals("saved", storage.findById(user.getId()).map(UserEntity::getUsername).orElse(null));
+
+        storage.flushPending();
+        assertEquals("saved", database.findById(user.getId()).map(UserEntity::getUsername).orElse(null));
+    }
+
+    @Test
+    void testFailingEntityDoesNotHoldBackTheBatch() {
+        val storage = storage(Duration.ZERO);
+        val bad = new UserEntity(UUID.randomUUID(), "x".repeat(300), true, Instant.now());
+        storage.save(bad);
+        for (int i = 0; i < 5; i++) {
+            storage.save(new UserEntity(UUID.randomUUID(), "user" + i, true, Instant.now()));
+        }
+        assertEquals(5, storage.flushPending());
+        assertEquals(5, database.count());
+        assertEquals(1, storage.getPendingCount());
+
+        val late = new UserEntity(UUID.randomUUID(), "late", true, Instant.now());
+        storage.save(late);
+        assertEquals(1, storage.flushPending());
+        assertTrue(database.findById(late.getId()).isPresent());
+        assertEquals(1, storage.getPendingCount());
+
+        assertEquals(0, storage.flushPending());
+        assertEquals(0, storage.getPendingCount());
+        assertTrue(database.findById(bad.getId()).isEmpty());
+    }
+
+    @Test
+    void testVersionedEntitiesAreRefused() {
+        val countCache = new CountCache(Duration.ofMinutes(1), 100);
+        assertThrows(IllegalArgumentException.class, () -> new HibernateWriteBehindJPAStorage<>(emf,
+                VersionedEntity.class, UUID.class, countCache, scheduler, Duration.ZERO, 100, 1000, null, Duration.ZERO));
+    }
+
+    private HibernateWriteBehindJPAStorage<UserEntity, UUID> storage(Duration journalInterval) {
+        val countCache = new CountCache(Duration.ofMinutes(1), 100);
+        return new HibernateWriteBehindJPAStorage<>(emf, UserEntity.class, UUID.class, countCache, scheduler,
+                Duration.ZERO, 100, 1000, journalDirectory, journalInterval);
+    }
+}
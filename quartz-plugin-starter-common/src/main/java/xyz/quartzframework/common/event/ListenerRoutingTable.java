@@ -0,0 +1,136 @@
+package xyz.quartzframework.common.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import xyz.quartzframework.core.bean.BeanInjector;
+import xyz.quartzframework.core.bean.definition.PluginBeanDefinition;
+import xyz.quartzframework.core.bean.definition.PluginBeanDefinitionRegistry;
+import xyz.quartzframework.core.bean.definition.metadata.MethodMetadata;
+import xyz.quartzframework.common.util.ListenerInvokers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Maps internal event types to the {@code @Listen} methods able to receive them, shared by the
+ * Spigot and Bungee event publishers.
+ * <p>
+ * The table is built from the bean definition registry on first use and reused until
+ * {@link #invalidate()} is called, which whoever registers, replaces or removes listener beans
+ * does once it is done, or until a listener bean skipped during the last build (not yet
+ * initialized or injected) becomes ready. Publishing only compares a modification counter and
+ * checks the skipped beans, so it never walks the registry. Routes for a concrete event class,
+ * including listeners declared against its supertypes, are resolved once and cached as an array.
+ */
+@RequiredArgsConstructor
+public class ListenerRoutingTable {
+
+    private static final Route[] NO_ROUTES = new Route[0];
+
+    private final PluginBeanDefinitionRegistry registry;
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public Route[] routes(Class<?> eventType) {
+        var current = snapshot;
+        if (current == null || current.isStale(modifications.get())) {
+            current = rebuild();
+        }
+        return current.routes(eventType);
+    }
+
+    /**
+     * Drops the table so the next publish rebuilds it from the registry.
+     */
+    public void invalidate() {
+        modifications.incrementAndGet();
+    }
+
+    private synchronized Snapshot rebuild() {
+        val modification = modifications.get();
+        val current = snapshot;
+        if (current != null && !current.isStale(modification)) {
+            return current;
+        }
+        val definitions = registry.getBeanDefinitions();
+        val routes = new ArrayList<Route>();
+        val pending = new ArrayList<PluginBeanDefinition>();
+        for (val definition : definitions) {
+            if (definition.getListenMethods().isEmpty()) continue;
+            if (!isReady(definition)) {
+                pending.add(definition);
+                continue;
+            }
+            val instance = BeanInjector.unwrapIfProxy(definition.getInstance());
+            if (instance == null) {
+                pending.add(definition);
+                continue;
+            }
+            definition.getListenMethods()
+                    .stream()
+                    .map(MethodMetadata::getMethod)
+                    .filter(m -> m.getParameterCount() == 1)
+                    .forEach(m -> routes.add(new Route(instance, m)));
+        }
+        val rebuilt = new Snapshot(modification, List.copyOf(pending), List.copyOf(routes));
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private static boolean isReady(PluginBeanDefinition definition) {
+        return definition.isInitialized() && definition.isInjected();
+    }
+
+    private record Snapshot(long modification,
+                            List<PluginBeanDefinition> pending,
+                            List<Route> routes,
+                            Map<Class<?>, Route[]> byEventType) {
+
+        Snapshot(long modification, List<PluginBeanDefinition> pending, List<Route> routes) {
+            this(modification, pending, routes, new ConcurrentHashMap<>());
+        }
+
+        boolean isStale(long currentModification) {
+            if (currentModification != modification) {
+                return true;
+            }
+            for (val definition : pending) {
+                if (isReady(definition) && definition.getInstance() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Route[] routes(Class<?> eventType) {
+            return byEventType.computeIfAbsent(eventType, type -> {
+                val matching = routes.stream()
+                        .filter(route -> route.eventType().isAssignableFrom(type))
+                        .toArray(Route[]::new);
+                return matching.length == 0 ? NO_ROUTES : matching;
+            });
+        }
+    }
+
+    public record Route(Object instance, Method method, BiConsumer<Object, Object> invoker) {
+
+        Route(Object instance, Method method) {
+            this(instance, method, ListenerInvokers.of(method));
+        }
+
+        Class<?> eventType() {
+            return method.getParameterTypes()[0];
+        }
+
+        public void invoke(Object event) {
+            invoker.accept(instance, event);
+        }
+    }
+}
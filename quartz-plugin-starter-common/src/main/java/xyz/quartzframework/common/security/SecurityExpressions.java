@@ -0,0 +1,33 @@
+package xyz.quartzframework.common.security;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/**
+ * Inspection of parsed {@code @Authorize} expressions shared by the Spigot and Bungee security
+ * aspects.
+ */
+@UtilityClass
+public class SecurityExpressions {
+
+    /**
+     * Whether the expression reads the {@code #name} variable anywhere in its syntax tree. Expressions
+     * that are not SpEL syntax trees are assumed to reference it.
+     */
+    public boolean referencesVariable(Expression expression, String name) {
+        if (!(expression instanceof SpelExpression spel)) return true;
+        return referencesVariable(spel.getAST(), "#" + name);
+    }
+
+    private boolean referencesVariable(SpelNode node, String reference) {
+        if (node instanceof VariableReference && reference.equals(node.toStringAST())) return true;
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (referencesVariable(node.getChild(i), reference)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package xyz.quartzframework.common.sync;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * Result handling shared by the Spigot and Bungee {@code @Synchronize} aspects.
+ * <p>
+ * A deferred call completes a {@link CompletableFuture} handed back to the caller in place of the
+ * method's own result. When the method itself returns a {@link CompletionStage} or {@link Future},
+ * that result is unwrapped, so the caller gets a future of the value rather than a future of a
+ * future. A {@code Future} that is not a {@code CompletionStage} and not yet done is waited for on
+ * the common pool.
+ */
+@Slf4j
+@UtilityClass
+public class SynchronizedCalls {
+
+    @FunctionalInterface
+    public interface Invocation {
+
+        Object proceed() throws Throwable;
+    }
+
+    /**
+     * Rejects methods declared to return a {@link Future} type that a {@link CompletableFuture}
+     * cannot be returned as, such as {@code FutureTask} or {@code ScheduledFuture}.
+     */
+    public void checkReturnType(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (isFuture(returnType) && !returnType.isAssignableFrom(CompletableFuture.class)) {
+            throw new IllegalStateException("@Synchronize method " + method + " must be declared to return "
+                    + "CompletableFuture, CompletionStage or Future, not " + returnType.getName());
+        }
+    }
+
+    public boolean isFuture(Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType) || Future.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * Task running the invocation and completing the future with its result, unless the future was
+     * cancelled first.
+     */
+    public Runnable task(CompletableFuture<Object> future, Invocation invocation) {
+        return () -> {
+            if (future.isCancelled()) return;
+            try {
+                complete(future, invocation.proceed());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+    }
+
+    public void complete(CompletableFuture<Object> future, Object result) {
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, error) -> complete(future, value, error));
+        } else if (result instanceof Future<?> pending) {
+            if (pending.isDone()) {
+                completeFrom(future, pending);
+            } else {
+                ForkJoinPool.commonPool().execute(() -> completeFrom(future, pending));
+            }
+        } else {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Logs the failure of a call whose caller does not get the future, i.e. a {@code void} method.
+     */
+    public void logFailure(CompletableFuture<Object> future, String description) {
+        future.whenComplete((value, error) -> {
+            if (error != null) log.error("Error in {}", description, error);
+        });
+    }
+
+    public Object await(CompletableFuture<Object> future, long timeoutMillis, String waitingFor) throws Throwable {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new IllegalStateException("Timed out after " + timeoutMillis + "ms waiting for " + waitingFor, e);
+        }
+    }
+
+    private void completeFrom(CompletableFuture<Object> future, Future<?> pending) {
+        try {
+            future.complete(pending.get());
+        } catch (ExecutionException e) {
+            future.completeExceptionally(e.getCause());
+        } catch (CancellationException e) {
+            future.completeExceptionally(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void complete(CompletableFuture<Object> future, Object value, Throwable error) {
+        if (error != null) {
+            future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+        } else {
+            future.complete(value);
+        }
+    }
+}
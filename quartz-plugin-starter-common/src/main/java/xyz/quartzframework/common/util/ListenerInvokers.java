@@ -0,0 +1,80 @@
+package xyz.quartzframework.common.util;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Compiles listener methods into direct invokers, shared by every listener and internal event route.
+ * <p>
+ * Each method is turned once into a {@link LambdaMetafactory}-generated {@link BiConsumer}
+ * (bean, event), so calls can be inlined by the JIT and neither go through {@link Method#invoke}
+ * nor allocate an argument array. Methods that cannot be bound that way fall back to an exact
+ * {@link MethodHandle} invocation. Exceptions thrown by the listener propagate unwrapped.
+ */
+@Slf4j
+@UtilityClass
+public class ListenerInvokers {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<Method, BiConsumer<Object, Object>> invokers = new ConcurrentHashMap<>();
+
+    public BiConsumer<Object, Object> of(Method method) {
+        return invokers.computeIfAbsent(method, ListenerInvokers::compile);
+    }
+
+    public void invoke(Object bean, Method method, Object event) {
+        of(method).accept(bean, event);
+    }
+
+    @SneakyThrows
+    private BiConsumer<Object, Object> compile(Method method) {
+        val lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        val handle = lookup.unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            try {
+                return metafactory(lookup, handle, method);
+            } catch (Throwable e) {
+                log.debug("Could not compile an invoker for {}, falling back to a method handle", method, e);
+            }
+        }
+        return fallback(handle, method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, Object> metafactory(MethodHandles.Lookup lookup, MethodHandle handle, Method method) throws Throwable {
+        val site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                INVOKER_TYPE,
+                handle,
+                MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0])
+        );
+        return (BiConsumer<Object, Object>) site.getTarget().invoke();
+    }
+
+    private BiConsumer<Object, Object> fallback(MethodHandle handle, Method method) {
+        val target = Modifier.isStatic(method.getModifiers())
+                ? MethodHandles.dropArguments(handle, 0, Object.class).asType(INVOKER_TYPE)
+                : handle.asType(INVOKER_TYPE);
+        return (bean, event) -> invokeExact(target, bean, event);
+    }
+
+    @SneakyThrows
+    private void invokeExact(MethodHandle target, Object bean, Object event) {
+        target.invokeExact(bean, event);
+    }
+}
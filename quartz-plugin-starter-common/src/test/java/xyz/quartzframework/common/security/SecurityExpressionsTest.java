@@ -0,0 +1,24 @@
+package xyz.quartzframework.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityExpressionsTest {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @Test
+    void testFindsNestedVariableReference() {
+        var expression = parser.parseExpression("hasPermission('a') and (#session.get('x') != null || #target == 1)");
+        assertTrue(SecurityExpressions.referencesVariable(expression, "session"));
+        assertTrue(SecurityExpressions.referencesVariable(expression, "target"));
+    }
+
+    @Test
+    void testIgnoresLookalikeText() {
+        var expression = parser.parseExpression("'#session' == name and #sessions != null");
+        assertFalse(SecurityExpressions.referencesVariable(expression, "session"));
+    }
+}
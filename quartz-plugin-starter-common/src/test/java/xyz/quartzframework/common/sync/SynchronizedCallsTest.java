@@ -0,0 +1,89 @@
+package xyz.quartzframework.common.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SynchronizedCallsTest {
+
+    interface Calls {
+
+        String plain();
+
+        CompletableFuture<String> completable();
+
+        CompletionStage<String> stage();
+
+        Future<String> future();
+
+        FutureTask<String> futureTask();
+    }
+
+    @Test
+    void testPlainResult() throws Exception {
+        var future = new CompletableFuture<>();
+        SynchronizedCalls.task(future, () -> "value").run();
+        assertEquals("value", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCompletionStageResultIsUnwrapped() throws Exception {
+        var future = new CompletableFuture<>();
+        var inner = new CompletableFuture<String>();
+        SynchronizedCalls.task(future, () -> inner).run();
+        assertFalse(future.isDone());
+        inner.complete("value");
+        assertEquals("value", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPlainFutureResultIsUnwrapped() throws Exception {
+        var future = new CompletableFuture<>();
+        var task = new FutureTask<>(() -> "value");
+        SynchronizedCalls.task(future, () -> task).run();
+        assertFalse(future.isDone());
+        task.run();
+        assertEquals("value", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailedFutureResult() {
+        var future = new CompletableFuture<>();
+        var task = new FutureTask<String>(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+        task.run();
+        SynchronizedCalls.task(future, () -> task).run();
+        var error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+    }
+
+    @Test
+    void testThrowingInvocation() {
+        var future = new CompletableFuture<>();
+        SynchronizedCalls.task(future, () -> {
+            throw new IllegalStateException("boom");
+        }).run();
+        var error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void testCancelledFutureSkipsInvocation() {
+        var future = new CompletableFuture<>();
+        future.cancel(false);
+        SynchronizedCalls.task(future, () -> fail("should not run")).run();
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void testReturnTypeCheck() throws Exception {
+        SynchronizedCalls.checkReturnType(Calls.class.getMethod("plain"));
+        SynchronizedCalls.checkReturnType(Calls.class.getMethod("completable"));
+        SynchronizedCalls.checkReturnType(Calls.class.getMethod("stage"));
+        SynchronizedCalls.checkReturnType(Calls.class.getMethod("future"));
+        assertThrows(IllegalStateException.class, () -> SynchronizedCalls.checkReturnType(Calls.class.getMethod("futureTask")));
+    }
+}
@@ -0,0 +1,94 @@
+package xyz.quartzframework.common.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Cost of one listener call through {@link ListenerInvokers} against the reflective path it
+ * replaced ({@link AopUtils#invokeJoinpointUsingReflection}, which also allocates the argument
+ * array), a plain {@link Method#invoke}, an exact {@link MethodHandle} and a direct call.
+ * <p>
+ * Run with {@code mvn -Pjmh verify -pl quartz-plugin-starter-common -Djmh.args=ListenerInvokers}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerInvokersBenchmark {
+
+    public static class SampleEvent {
+
+        private final long value = 1;
+    }
+
+    public static class SampleListener {
+
+        private long received;
+
+        public void onEvent(SampleEvent event) {
+            received += event.value;
+        }
+    }
+
+    private final SampleEvent event = new SampleEvent();
+
+    private SampleListener listener;
+
+    private Method method;
+
+    private MethodHandle handle;
+
+    private BiConsumer<Object, Object> invoker;
+
+    @Setup
+    public void setup() throws Exception {
+        listener = new SampleListener();
+        method = SampleListener.class.getMethod("onEvent", SampleEvent.class);
+        handle = MethodHandles.lookup().unreflect(method);
+        invoker = ListenerInvokers.of(method);
+    }
+
+    @Benchmark
+    public long direct() {
+        listener.onEvent(event);
+        return listener.received;
+    }
+
+    @Benchmark
+    public long compiledInvoker() {
+        invoker.accept(listener, event);
+        return listener.received;
+    }
+
+    @Benchmark
+    public long cachedInvokerLookup() {
+        ListenerInvokers.invoke(listener, method, event);
+        return listener.received;
+    }
+
+    @Benchmark
+    public long methodHandle() throws Throwable {
+        handle.invokeExact(listener, event);
+        return listener.received;
+    }
+
+    @Benchmark
+    public long reflection() throws Exception {
+        method.invoke(listener, event);
+        return listener.received;
+    }
+
+    @Benchmark
+    public long aopReflection() throws Throwable {
+        AopUtils.invokeJoinpointUsingReflection(listener, method, new Object[]{event});
+        return listener.received;
+    }
+}
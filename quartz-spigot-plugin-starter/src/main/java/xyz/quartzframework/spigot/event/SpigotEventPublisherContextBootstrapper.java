@@ -2,6 +2,7 @@ package xyz.quartzframework.spigot.event;
 
 import lombok.RequiredArgsConstructor;
 import org.bukkit.plugin.PluginManager;
+import xyz.quartzframework.common.event.ListenerRoutingTable;
 import xyz.quartzframework.core.bean.annotation.NoProxy;
 import xyz.quartzframework.core.bean.annotation.Provide;
 import xyz.quartzframework.core.bean.definition.PluginBeanDefinitionRegistry;
@@ -19,9 +20,14 @@ public class SpigotEventPublisherContextBootstrapper {
 
     private final PluginBeanDefinitionRegistry registry;
 
+    @Provide
+    ListenerRoutingTable listenerRoutingTable() {
+        return new ListenerRoutingTable(registry);
+    }
+
     @Provide
     @ActivateWhenBeanMissing(EventPublisher.class)
-    EventPublisher eventPublisher(PluginManager pluginManager) {
-        return new SpigotEventPublisher(registry, pluginManager, taskFactory);
+    EventPublisher eventPublisher(PluginManager pluginManager, ListenerRoutingTable routingTable) {
+        return new SpigotEventPublisher(pluginManager, taskFactory, routingTable);
     }
 }
\ No newline at end of file
@@ -1,14 +1,13 @@
 package xyz.quartzframework.spigot.listener;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.val;
 import org.bukkit.event.Event;
 import org.bukkit.plugin.EventExecutor;
-import org.springframework.aop.support.AopUtils;
 import xyz.quartzframework.core.listener.PluginEventExecutor;
 import xyz.quartzframework.spigot.session.SpigotSession;
 import xyz.quartzframework.spigot.util.EventUtil;
+import xyz.quartzframework.common.util.ListenerInvokers;
 
 import java.lang.reflect.Method;
 
@@ -20,16 +19,16 @@ class SpigotPluginEventExecutor implements PluginEventExecutor<EventExecutor, Ev
     @Override
     public EventExecutor create(Object bean, Method method) {
         val eventType = method.getParameters()[0].getType();
+        val invoker = ListenerInvokers.of(method);
         return (listener, event) -> {
             if (!eventType.isInstance(event)) return;
             session.runWithSender(EventUtil.getSender(event),
-                    () -> triggerEvent(bean, method, event));
+                    () -> invoker.accept(bean, event));
         };
     }
 
     @Override
-    @SneakyThrows
     public void triggerEvent(Object bean, Method method, Event event) {
-        AopUtils.invokeJoinpointUsingReflection(bean, method, new Object[]{event});
+        ListenerInvokers.invoke(bean, method, event);
     }
-}
\ No newline at end of file
+}
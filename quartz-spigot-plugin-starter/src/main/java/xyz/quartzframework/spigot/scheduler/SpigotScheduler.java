@@ -1,6 +1,7 @@
 package xyz.quartzframework.spigot.scheduler;
 
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import xyz.quartzframework.core.bean.annotation.Inject;
@@ -9,6 +10,10 @@ import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanPresent;
 import xyz.quartzframework.core.scheduler.Scheduler;
 import xyz.quartzframework.spigot.session.SpigotSession;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Injectable
 @ActivateWhenBeanPresent(BukkitScheduler.class)
 @RequiredArgsConstructor(onConstructor = @__(@Inject))
@@ -35,6 +40,68 @@ public class SpigotScheduler implements Scheduler {
         return scheduler.scheduleSyncRepeatingTask(plugin, session.wrap(task), delay, period);
     }
 
+    /**
+     * Runs the task off the main thread, completing the returned future once it finishes.
+     */
+    public CompletableFuture<Void> runTaskAsynchronously(Runnable task) {
+        return callAsync(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task off the main thread after the given delay in ticks.
+     */
+    public CompletableFuture<Void> runTaskLaterAsynchronously(Runnable task, long delay) {
+        val future = new CompletableFuture<Void>();
+        submit(future, () -> scheduler.runTaskLaterAsynchronously(plugin, completing(future, () -> {
+            task.run();
+            return null;
+        }), delay));
+        return future;
+    }
+
+    /**
+     * Runs the task off the main thread every {@code period} ticks, returning its task id.
+     */
+    public int runTaskTimerAsynchronously(Runnable task, long delay, long period) {
+        return scheduler.runTaskTimerAsynchronously(plugin, session.wrap(task), delay, period).getTaskId();
+    }
+
+    /**
+     * Computes a value off the main thread. The current sender is propagated to the task.
+     */
+    public <T> CompletableFuture<T> callAsync(Callable<T> task) {
+        val future = new CompletableFuture<T>();
+        submit(future, () -> scheduler.runTaskAsynchronously(plugin, completing(future, task)));
+        return future;
+    }
+
+    /**
+     * Computes a value on the main thread, running it immediately when already called from it.
+     */
+    public <T> CompletableFuture<T> callSync(Callable<T> task) {
+        val future = new CompletableFuture<T>();
+        if (plugin.getServer().isPrimaryThread()) {
+            completing(future, task).run();
+        } else {
+            submit(future, () -> scheduler.runTask(plugin, completing(future, task)));
+        }
+        return future;
+    }
+
+    /**
+     * Executor running on the main thread, meant to hand async results back to it, e.g.
+     * {@code callAsync(query).thenAcceptAsync(consumer, scheduler.mainThreadExecutor())}.
+     */
+    public Executor mainThreadExecutor() {
+        return task -> callSync(() -> {
+            task.run();
+            return null;
+        });
+    }
+
     @Override
     public void cancelTask(int taskId) {
         scheduler.cancelTask(taskId);
@@ -49,4 +116,23 @@ public class SpigotScheduler implements Scheduler {
     public boolean isQueued(int taskId) {
         return scheduler.isQueued(taskId);
     }
-}
\ No newline at end of file
+
+    private <T> Runnable completing(CompletableFuture<T> future, Callable<T> task) {
+        return session.wrap(() -> {
+            if (future.isDone()) return;
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+    }
+
+    private void submit(CompletableFuture<?> future, Runnable submission) {
+        try {
+            submission.run();
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+}
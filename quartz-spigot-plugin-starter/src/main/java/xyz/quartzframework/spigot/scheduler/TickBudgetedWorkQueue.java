@@ -0,0 +1,198 @@
+package xyz.quartzframework.spigot.scheduler;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.bukkit.scheduler.BukkitScheduler;
+import xyz.quartzframework.core.bean.annotation.Inject;
+import xyz.quartzframework.core.bean.annotation.Injectable;
+import xyz.quartzframework.core.condition.annotation.ActivateWhenBeanPresent;
+import xyz.quartzframework.core.property.Property;
+import xyz.quartzframework.spigot.session.SpigotSession;
+
+import javax.annotation.PreDestroy;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Main-thread work queue spreading heavy Bukkit jobs across ticks.
+ * <p>
+ * Submitted work is split into slices of {@code quartz.scheduler.work_queue.slice_size} items.
+ * Each tick, slices are run in submission order until {@code quartz.scheduler.work_queue.tick_budget_ms}
+ * is spent, then the queue yields to the next tick, so large jobs take longer instead of lowering TPS.
+ * The ticking task only exists while work is queued.
+ * <p>
+ * Work still queued when the plugin is disabled, or when the ticking task cannot be scheduled, is
+ * dropped and its future completed exceptionally with a {@link CancellationException}, so callers
+ * chained on it are not left waiting.
+ */
+@Slf4j
+@Injectable
+@ActivateWhenBeanPresent(BukkitScheduler.class)
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class TickBudgetedWorkQueue {
+
+    private static final int NOT_RUNNING = -1;
+
+    private final SpigotScheduler scheduler;
+
+    private final SpigotSession session;
+
+    @Property("${quartz.scheduler.work_queue.tick_budget_ms:5}")
+    private long tickBudgetMillis;
+
+    @Property("${quartz.scheduler.work_queue.slice_size:16}")
+    private int sliceSize;
+
+    private final Queue<Job<?>> jobs = new ConcurrentLinkedQueue<>();
+
+    private int taskId = NOT_RUNNING;
+
+    private volatile boolean closed;
+
+    /**
+     * Fraction of the tick budget used during the last tick, may exceed 1 when a slice overruns it.
+     */
+    @Getter
+    private volatile double lastTickUtilization;
+
+    /**
+     * Exponential moving average of {@link #getLastTickUtilization()} over ticks with queued work.
+     */
+    @Getter
+    private volatile double averageUtilization;
+
+    public <T> CompletableFuture<Void> submit(Iterable<T> items, Consumer<? super T> action) {
+        return submit(items, sliceSize, action);
+    }
+
+    public <T> CompletableFuture<Void> submit(Iterable<T> items, int sliceSize, Consumer<? super T> action) {
+        if (sliceSize < 1) {
+            throw new IllegalArgumentException("Slice size must be positive");
+        }
+        if (closed) {
+            return CompletableFuture.failedFuture(new CancellationException("Work queue is shut down"));
+        }
+        val job = new Job<T>(items.iterator(), sliceSize, action);
+        jobs.add(job);
+        if (closed) {
+            cancelPending("Work queue is shut down");
+        } else {
+            ensureRunning();
+        }
+        return job.future;
+    }
+
+    public int getQueueDepth() {
+        return jobs.size();
+    }
+
+    /**
+     * Stops the ticking task and cancels every queued job.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        closed = true;
+        if (taskId != NOT_RUNNING) {
+            try {
+                scheduler.cancelTask(taskId);
+            } catch (RuntimeException e) {
+                log.debug("Could not cancel work queue task {}", taskId, e);
+            }
+            taskId = NOT_RUNNING;
+        }
+        cancelPending("Work queue is shut down");
+    }
+
+    private synchronized void ensureRunning() {
+        if (closed || taskId != NOT_RUNNING || jobs.isEmpty()) {
+            return;
+        }
+        try {
+            taskId = scheduler.scheduleSyncRepeatingTask(this::tick, 1, 1);
+        } catch (RuntimeException e) {
+            log.error("Could not schedule the work queue task", e);
+            taskId = NOT_RUNNING;
+        }
+        if (taskId == NOT_RUNNING) {
+            cancelPending("Work queue task could not be scheduled");
+        }
+    }
+
+    private void cancelPending(String reason) {
+        Job<?> job;
+        while ((job = jobs.poll()) != null) {
+            job.future.completeExceptionally(new CancellationException(reason));
+        }
+    }
+
+    private synchronized void stopIfIdle() {
+        if (jobs.isEmpty() && taskId != NOT_RUNNING) {
+            scheduler.cancelTask(taskId);
+            taskId = NOT_RUNNING;
+        }
+    }
+
+    private void tick() {
+        val budget = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickBudgetMillis));
+        val start = System.nanoTime();
+        Job<?> job;
+        while ((job = jobs.peek()) != null && System.nanoTime() - start < budget) {
+            if (job.runSlice()) {
+                jobs.remove(job);
+            }
+        }
+        val utilization = (double) (System.nanoTime() - start) / budget;
+        lastTickUtilization = utilization;
+        averageUtilization = averageUtilization * 0.9 + utilization * 0.1;
+        stopIfIdle();
+    }
+
+    private final class Job<T> {
+
+        private final Iterator<T> iterator;
+
+        private final int sliceSize;
+
+        private final Runnable slice;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Job(Iterator<T> iterator, int sliceSize, Consumer<? super T> action) {
+            this.iterator = iterator;
+            this.sliceSize = sliceSize;
+            this.slice = session.wrap(() -> {
+                for (int i = 0; i < this.sliceSize && this.iterator.hasNext(); i++) {
+                    action.accept(this.iterator.next());
+                }
+            });
+        }
+
+        /**
+         * Runs one slice, returning whether the job is done.
+         */
+        boolean runSlice() {
+            if (future.isDone()) {
+                return true;
+            }
+            try {
+                slice.run();
+                if (iterator.hasNext()) {
+                    return false;
+                }
+                future.complete(null);
+            } catch (Throwable t) {
+                log.error("Error while running work queue slice", t);
+                future.completeExceptionally(t);
+            }
+            return true;
+        }
+    }
+}
@@ -10,8 +10,11 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.bukkit.ChatColor;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import xyz.quartzframework.common.security.SecurityExpressions;
 import xyz.quartzframework.core.exception.PermissionDeniedException;
 import xyz.quartzframework.core.exception.PlayerNotFoundException;
 import xyz.quartzframework.core.security.Authorize;
@@ -19,23 +22,45 @@ import xyz.quartzframework.core.util.AopAnnotationUtils;
 import xyz.quartzframework.spigot.session.SpigotSession;
 import xyz.quartzframework.spigot.session.SpigotSessionService;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.IntStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.apache.commons.lang3.BooleanUtils.toBoolean;
 
+/**
+ * Evaluates {@link Authorize} expressions before guarded calls.
+ * <p>
+ * Applicable annotations, parameter names and parsed expressions are resolved once per method.
+ * Expressions are compiled to bytecode after their first evaluations (falling back to
+ * interpretation if the sender type changes). Evaluation contexts are pooled by the aspect and
+ * cleared after each check, so no thread keeps one, or the plugin classes it references, once the
+ * aspect is gone.
+ */
 @Aspect
 @RequiredArgsConstructor
 public class SpigotSecurityAspect {
 
+    private static final String SESSION_VARIABLE = "session";
+
+    private static final String PARAMS_VARIABLE = "params";
+
     private final SpigotSession session;
 
     private final SpigotSessionService sessionService;
 
+    private final Map<Method, SecurityPlan> plans = new ConcurrentHashMap<>();
+
     private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
 
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
+    private final Queue<StandardEvaluationContext> contexts = new ConcurrentLinkedQueue<>();
 
     @Around("within(@(@xyz.quartzframework.core.security.Authorize *) *) " +
             "|| execution(@(@xyz.quartzframework.core.security.Authorize *) * *(..)) " +
@@ -47,20 +72,61 @@ public class SpigotSecurityAspect {
             throw new PlayerNotFoundException();
         }
         val method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-        val senderContext = new StandardEvaluationContext(sender);
-        val parameters = method.getParameters();
-        IntStream.range(0, parameters.length)
-                .forEach(i -> senderContext.setVariable(parameters[i].getName(), joinPoint.getArgs()[i]));
-        senderContext.setVariable("session", sessionService.current());
-        AopAnnotationUtils.getApplicableAnnotations(method, Authorize.class).forEach(pluginAuthorize -> {
-            val expressionSource = pluginAuthorize.value();
-            val expression = expressionCache.computeIfAbsent(expressionSource, parser::parseExpression);
-            senderContext.setVariable("params", pluginAuthorize.params());
-            if (!toBoolean(expression.getValue(senderContext, Boolean.class))) {
-                val message = StringUtils.trimToNull(ChatColor.translateAlternateColorCodes('&', pluginAuthorize.message()));
-                throw new PermissionDeniedException(expressionSource, message);
+        val plan = plans.computeIfAbsent(method, this::createPlan);
+        var senderContext = contexts.poll();
+        if (senderContext == null) senderContext = new StandardEvaluationContext();
+        senderContext.setRootObject(sender);
+        try {
+            val args = joinPoint.getArgs();
+            for (int i = 0; i < plan.parameterNames().length; i++) {
+                senderContext.setVariable(plan.parameterNames()[i], args[i]);
+            }
+            if (plan.usesSession()) {
+                senderContext.setVariable(SESSION_VARIABLE, sessionService.current());
             }
-        });
+            for (val rule : plan.rules()) {
+                senderContext.setVariable(PARAMS_VARIABLE, rule.params());
+                if (!toBoolean(rule.expression().getValue(senderContext, Boolean.class))) {
+                    throw new PermissionDeniedException(rule.source(), rule.message());
+                }
+            }
+        } finally {
+            clear(senderContext, plan);
+            contexts.offer(senderContext);
+        }
         return joinPoint.proceed();
     }
-}
\ No newline at end of file
+
+    private SecurityPlan createPlan(Method method) {
+        val parameterNames = Arrays.stream(method.getParameters())
+                .map(Parameter::getName)
+                .toArray(String[]::new);
+        val rules = AopAnnotationUtils.getApplicableAnnotations(method, Authorize.class)
+                .stream()
+                .map(authorize -> new SecurityRule(
+                        authorize.value(),
+                        expressionCache.computeIfAbsent(authorize.value(), parser::parseExpression),
+                        authorize.params(),
+                        StringUtils.trimToNull(ChatColor.translateAlternateColorCodes('&', authorize.message()))))
+                .toArray(SecurityRule[]::new);
+        val usesSession = Arrays.stream(rules).anyMatch(rule -> SecurityExpressions.referencesVariable(rule.expression(), SESSION_VARIABLE));
+        return new SecurityPlan(parameterNames, rules, usesSession);
+    }
+
+    private static void clear(StandardEvaluationContext context, SecurityPlan plan) {
+        context.setRootObject(null);
+        for (val name : plan.parameterNames()) {
+            context.setVariable(name, null);
+        }
+        context.setVariable(SESSION_VARIABLE, null);
+        context.setVariable(PARAMS_VARIABLE, null);
+    }
+
+    private record SecurityPlan(String[] parameterNames, SecurityRule[] rules, boolean usesSession) {
+
+    }
+
+    private record SecurityRule(String source, Expression expression, String[] params, String message) {
+
+    }
+}
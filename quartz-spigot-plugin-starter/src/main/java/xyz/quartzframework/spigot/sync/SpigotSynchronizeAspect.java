@@ -2,12 +2,32 @@ package xyz.quartzframework.spigot.sync;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.bukkit.Server;
+import xyz.quartzframework.common.sync.SynchronizedCalls;
 import xyz.quartzframework.core.scheduler.Scheduler;
+import xyz.quartzframework.spigot.session.SpigotSession;
 
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@code @Synchronize} methods on the main thread.
+ * <p>
+ * Calls made off the main thread are queued and drained in a single scheduler task per tick.
+ * Methods returning {@link CompletionStage} or {@link Future} get a future completed with the
+ * result, unwrapped when the method itself returns a future (see {@link SynchronizedCalls}),
+ * {@code void} methods return immediately, and any other return type blocks the caller for up to
+ * {@code quartz.sync.timeout_ms} until the main thread has run the call.
+ */
 @Slf4j
 @Aspect
 @RequiredArgsConstructor
@@ -17,6 +37,14 @@ public class SpigotSynchronizeAspect {
 
     private final Server server;
 
+    private final SpigotSession session;
+
+    private final long timeoutMillis;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
     @Around("within(@(@xyz.quartzframework.core.sync.Synchronize *) *) " +
             "|| execution(@(@xyz.quartzframework.core.sync.Synchronize *) * *(..)) " +
             "|| @within(xyz.quartzframework.core.sync.Synchronize)" +
@@ -25,13 +53,40 @@ public class SpigotSynchronizeAspect {
         if (server.isPrimaryThread()) {
             return joinPoint.proceed();
         }
-        scheduler.scheduleSyncDelayedTask(() -> {
+        val method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        SynchronizedCalls.checkReturnType(method);
+        val returnType = method.getReturnType();
+        val future = new CompletableFuture<>();
+        enqueue(session.wrap(SynchronizedCalls.task(future, joinPoint::proceed)));
+        if (returnType == void.class) {
+            SynchronizedCalls.logFailure(future, "synchronous task");
+            return null;
+        }
+        if (SynchronizedCalls.isFuture(returnType)) {
+            return future;
+        }
+        return SynchronizedCalls.await(future, timeoutMillis, "the main thread");
+    }
+
+    private void enqueue(Runnable invocation) {
+        pending.add(invocation);
+        if (drainScheduled.compareAndSet(false, true)) {
             try {
-                joinPoint.proceed();
-            } catch (Throwable throwable) {
-                log.error("Error in synchronous task", throwable);
+                scheduler.scheduleSyncDelayedTask(this::drain, 0);
+            } catch (RuntimeException e) {
+                // the caller gets the exception, so the call must not run later on someone else's drain
+                pending.remove(invocation);
+                drainScheduled.set(false);
+                throw e;
             }
-        }, 0);
-        return null;
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Runnable invocation;
+        while ((invocation = pending.poll()) != null) {
+            invocation.run();
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,8 +7,10 @@ import xyz.quartzframework.core.bean.annotation.NoProxy;
 import xyz.quartzframework.core.bean.annotation.Provide;
 import xyz.quartzframework.core.condition.annotation.ActivateWhenAnnotationPresent;
 import xyz.quartzframework.core.context.annotation.ContextBootstrapper;
+import xyz.quartzframework.core.property.Property;
 import xyz.quartzframework.core.scheduler.Scheduler;
 import xyz.quartzframework.core.sync.EnableMainThreadSynchronization;
+import xyz.quartzframework.spigot.session.SpigotSession;
 
 @Slf4j
 @NoProxy
@@ -20,10 +22,15 @@ public class SynchronizeAspectContextBootstrapper {
 
     private final Server server;
 
+    private final SpigotSession session;
+
+    @Property("${quartz.sync.timeout_ms:5000}")
+    private long timeoutMillis;
+
     @Provide
     @ActivateWhenAnnotationPresent(EnableMainThreadSynchronization.class)
     SpigotSynchronizeAspect synchronizeAspect() {
         log.info("Enabling @Synchronize feature");
-        return new SpigotSynchronizeAspect(scheduler, server);
+        return new SpigotSynchronizeAspect(scheduler, server, session, timeoutMillis);
     }
 }
\ No newline at end of file